@@ -1,67 +1,799 @@
-package hr.marin.jvdraw;
-
-import java.awt.Color;
-import java.awt.Dimension;
-import java.awt.Graphics;
-import java.awt.Graphics2D;
-
-import hr.marin.jvdraw.model.DrawingModel;
-import hr.marin.jvdraw.model.DrawingModelListener;
-import javax.swing.JComponent;
-
-/**
- * The central component of a {@link JVDraw} program. It represents the canvas
- * onto which all the geometric shapes are drawn.
- * 
- * @author Marin
- *
- */
-public class JDrawingCanvas extends JComponent implements DrawingModelListener {
-	/**
-	 * The default serial version UID.
-	 */
-	private static final long serialVersionUID = 1L;
-	/**
-	 * The drawing model used by this canvas to obtain geometric objects that are to be drawn
-	 */
-	private DrawingModel drawingModel;
-
-	/**
-	 * Creates a new {@link JDrawingCanvas} object with the given {@link DrawingModel} argument.
-	 * @param drawingModel The drawing model used by this canvas to obtain geometric objects that are to be drawn
-	 */
-	public JDrawingCanvas(DrawingModel drawingModel) {
-		this.drawingModel = drawingModel;
-		setOpaque(true);
-	}
-
-	@Override
-	public void objectsAdded(DrawingModel source, int index0, int index1) {
-		drawingModel = source;
-		repaint();
-	}
-
-	@Override
-	public void objectsRemoved(DrawingModel source, int index0, int index1) {
-		drawingModel = source;
-		repaint();
-	}
-
-	@Override
-	public void objectsChanged(DrawingModel source, int index0, int index1) {
-		drawingModel = source;
-		repaint();
-	}
-
-	@Override
-	protected void paintComponent(Graphics g) {
-		Graphics2D g2d = (Graphics2D) g.create();
-		Dimension size = getSize();
-		g2d.setColor(Color.WHITE);
-		g2d.fillRect(0, 0, size.width, size.height);
-
-		for (int i = 0, n = drawingModel.getSize(); i < n; i++) {
-			drawingModel.getObject(i).paint(g2d);
-		}
-	}
-}
+package hr.marin.jvdraw;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import hr.marin.jvdraw.geometric.GeometricalObject;
+import hr.marin.jvdraw.model.DrawingModel;
+import hr.marin.jvdraw.model.DrawingModelListener;
+import hr.marin.jvdraw.model.DrawingSelection;
+import hr.marin.jvdraw.model.SelectionListener;
+import hr.marin.jvdraw.render.LevelOfDetail;
+import hr.marin.jvdraw.render.Renderer;
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+
+/**
+ * The central component of a {@link JVDraw} program. It represents the canvas
+ * onto which all the geometric shapes are drawn.
+ * <p>
+ * The canvas remembers the bounding rectangle each object had when it was last
+ * painted. When an object changes, only the union of its old and new bounding
+ * rectangles is repainted, and painting skips every object that lies outside
+ * the clip.
+ * </p>
+ * <p>
+ * The canvas shows the drawing through a viewport that can be zoomed with the
+ * mouse wheel and panned by dragging with the middle or the right mouse
+ * button. A point of the drawing (world coordinates) is scaled into view
+ * coordinates, and the view coordinates are shifted by the pan offset into
+ * the coordinates of the component.
+ * </p>
+ * <p>
+ * The committed objects are kept rendered in a cache of fixed-size tiles,
+ * laid out in view coordinates, so panning reuses the cached tiles and only
+ * zooming throws them away. A change of an object only marks the tiles its
+ * bounding rectangles touch as dirty, and painting re-renders just the dirty
+ * tiles that intersect the clip, each with the objects found inside it by the
+ * spatial index of the model. The least recently painted tiles are dropped
+ * once the cache grows too large.
+ * </p>
+ * <p>
+ * The tiles are rendered by a {@link Renderer}. When the drawing is zoomed
+ * out, objects smaller than a configurable number of screen pixels are not
+ * painted as shapes, but rendered according to a {@link LevelOfDetail}.
+ * </p>
+ * <p>
+ * The object that is currently being created (the overlay) is not part of the
+ * cached tiles; it is painted on top of them, so dragging it out only costs a
+ * copy of the cached pixels and the painting of a single object.
+ * </p>
+ * <p>
+ * The selected objects and the selection rectangle being dragged out (the
+ * marquee) are painted on top of the tiles in the same way, so a change of the
+ * selection repaints the canvas only once and never re-renders a tile.
+ * </p>
+ *
+ * @author Marin
+ *
+ */
+public class JDrawingCanvas extends JComponent implements DrawingModelListener, SelectionListener {
+	/**
+	 * The default serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+	/**
+	 * The width and height of a cached tile, in pixels.
+	 */
+	private static final int TILE_SIZE = 256;
+	/**
+	 * The width of the margin rendered around every tile. Ovals are rasterized
+	 * slightly differently next to the edge of an image, so without the margin
+	 * the seams between tiles would show.
+	 */
+	private static final int TILE_MARGIN = 8;
+	/**
+	 * The factor the scale changes by per notch of the mouse wheel.
+	 */
+	private static final double ZOOM_STEP = 1.2;
+	/**
+	 * The smallest scale of the viewport.
+	 */
+	private static final double MIN_SCALE = 1e-4;
+	/**
+	 * The largest scale of the viewport.
+	 */
+	private static final double MAX_SCALE = 64;
+	/**
+	 * The largest number of cached tiles.
+	 */
+	private static final int MAX_TILES = 256;
+	/**
+	 * The largest distance from an object, in pixels of the component, at
+	 * which a click still picks the object.
+	 */
+	private static final int PICK_TOLERANCE = 3;
+	/**
+	 * The color of the outlines of the selected objects and of the marquee.
+	 */
+	private static final Color SELECTION_COLOR = new Color(0x33, 0x99, 0xFF);
+	/**
+	 * The color the marquee is filled with.
+	 */
+	private static final Color MARQUEE_COLOR = new Color(0x33, 0x99, 0xFF, 0x40);
+	/**
+	 * The largest number of selected objects that are painted by walking the
+	 * selection. Larger selections are painted by walking the objects inside
+	 * the clip instead.
+	 */
+	private static final int MAX_WALKED_SELECTION = 4096;
+	/**
+	 * The drawing model used by this canvas to obtain geometric objects that are to be drawn
+	 */
+	private DrawingModel drawingModel;
+	/**
+	 * The last painted bounding rectangle of every object in the model, four
+	 * values (min x, min y, max x, max y) per object.
+	 */
+	private int[] paintedBounds;
+	/**
+	 * The number of objects whose bounding rectangles are stored in
+	 * {@link #paintedBounds}.
+	 */
+	private int paintedCount;
+	/**
+	 * The object that is currently being created, or null if there is none.
+	 */
+	private GeometricalObject overlay;
+	/**
+	 * The selection of the objects of the drawing, or null if there is none.
+	 */
+	private DrawingSelection selection;
+	/**
+	 * The marquee in the coordinates of the component, or null if none is
+	 * being dragged out.
+	 */
+	private Rectangle marquee;
+	/**
+	 * The cached tiles, keyed by their packed tile coordinates, from the least
+	 * to the most recently painted one.
+	 */
+	private Map<Long, Tile> tiles;
+	/**
+	 * The number of view pixels per world pixel.
+	 */
+	private double scale;
+	/**
+	 * The view x coordinate shown at the left edge of the component.
+	 */
+	private int panX;
+	/**
+	 * The view y coordinate shown at the top edge of the component.
+	 */
+	private int panY;
+	/**
+	 * The renderer of the tiles.
+	 */
+	private Renderer renderer;
+
+	/**
+	 * Creates a new {@link JDrawingCanvas} object with the given {@link DrawingModel} argument.
+	 * @param drawingModel The drawing model used by this canvas to obtain geometric objects that are to be drawn
+	 */
+	public JDrawingCanvas(DrawingModel drawingModel) {
+		this.drawingModel = drawingModel;
+		paintedBounds = new int[64];
+		tiles = new LinkedHashMap<Long, Tile>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, Tile> eldest) {
+				return size() > MAX_TILES;
+			}
+		};
+		scale = 1;
+		renderer = new Renderer(drawingModel);
+		renderer.setLevelOfDetail(LevelOfDetail.PIXEL, 1);
+		setOpaque(true);
+
+		ViewportNavigator navigator = new ViewportNavigator();
+		addMouseListener(navigator);
+		addMouseMotionListener(navigator);
+		addMouseWheelListener(navigator);
+	}
+
+	/**
+	 * Method maps the given point of the component to the point of the
+	 * drawing shown there.
+	 *
+	 * @param point
+	 *            The point in the coordinates of the component.
+	 * @return The point in world coordinates.
+	 */
+	public Point toWorld(Point point) {
+		return new Point(toWorldX(point.x), toWorldY(point.y));
+	}
+
+	/**
+	 * Method finds the topmost object of the drawing shown at the given point
+	 * of the component. Objects within a few pixels of the point are found as
+	 * well, whatever the scale of the viewport. The center of the pixel is
+	 * mapped to the drawing without rounding, and the tolerance includes half
+	 * the stroke width, which grows with the scale, so an object is found
+	 * wherever it is drawn.
+	 *
+	 * @param point
+	 *            The point in the coordinates of the component.
+	 * @return The index of the found object in the drawing model, or -1 if
+	 *         there is no object at the given point.
+	 */
+	public int getObjectIndexAt(Point point) {
+		Point2D world = new Point2D.Double((point.x + 0.5 + panX) / scale, (point.y + 0.5 + panY) / scale);
+		return drawingModel.getIndexAt(world, PICK_TOLERANCE / scale + 0.5);
+	}
+
+	/**
+	 * Method maps the given x coordinate of the component to the x coordinate
+	 * of the drawing shown there.
+	 *
+	 * @param x
+	 *            The x coordinate in the coordinates of the component.
+	 * @return The x coordinate in world coordinates.
+	 */
+	public int toWorldX(int x) {
+		return (int) Math.floor((x + panX) / scale);
+	}
+
+	/**
+	 * Method maps the given y coordinate of the component to the y coordinate
+	 * of the drawing shown there.
+	 *
+	 * @param y
+	 *            The y coordinate in the coordinates of the component.
+	 * @return The y coordinate in world coordinates.
+	 */
+	public int toWorldY(int y) {
+		return (int) Math.floor((y + panY) / scale);
+	}
+
+	/**
+	 * Method multiplies the scale of the viewport by the given factor, keeping
+	 * the point of the drawing under the given anchor in place. The scale is
+	 * kept between 1:10000 and 64:1.
+	 *
+	 * @param factor
+	 *            The factor to multiply the scale by.
+	 * @param anchor
+	 *            The point of the component that stays in place.
+	 */
+	public void zoom(double factor, Point anchor) {
+		double newScale = Math.max(MIN_SCALE, Math.min(MAX_SCALE, scale * factor));
+		if (newScale == scale) {
+			return;
+		}
+
+		double worldX = (anchor.x + panX) / scale;
+		double worldY = (anchor.y + panY) / scale;
+		scale = newScale;
+		panX = clamp(Math.round(worldX * scale) - anchor.x);
+		panY = clamp(Math.round(worldY * scale) - anchor.y);
+		tiles.clear();
+		repaint();
+	}
+
+	/**
+	 * Sets the way objects smaller than the given number of screen pixels are
+	 * rendered. By default, objects smaller than a single pixel are rendered as
+	 * single pixels.
+	 *
+	 * @param levelOfDetail
+	 *            The way small objects are rendered.
+	 * @param threshold
+	 *            The width and height in screen pixels below which an object
+	 *            counts as small.
+	 */
+	public void setLevelOfDetail(LevelOfDetail levelOfDetail, double threshold) {
+		renderer.setLevelOfDetail(levelOfDetail, threshold);
+		tiles.clear();
+		repaint();
+	}
+
+	/**
+	 * Method moves the viewport by the given number of component pixels.
+	 *
+	 * @param dx
+	 *            The horizontal distance to move by.
+	 * @param dy
+	 *            The vertical distance to move by.
+	 */
+	public void pan(int dx, int dy) {
+		panX = clamp((long) panX + dx);
+		panY = clamp((long) panY + dy);
+		repaint();
+	}
+
+	/**
+	 * Sets the object that is currently being created. The overlay is not
+	 * rendered into the cached tiles, but painted on top of them, so it can
+	 * change cheaply. Setting a new overlay, or null, commits the previous one
+	 * into the tiles.
+	 *
+	 * @param overlay
+	 *            The object that is currently being created, or null if there
+	 *            is none.
+	 */
+	public void setOverlay(GeometricalObject overlay) {
+		if (this.overlay == overlay) {
+			return;
+		}
+
+		Rectangle dirty = null;
+		if (this.overlay != null) {
+			dirty = union(dirty, pixels(this.overlay.getBoundingRect()));
+		}
+		if (overlay != null) {
+			dirty = union(dirty, pixels(overlay.getBoundingRect()));
+		}
+		this.overlay = overlay;
+		renderer.setExcluded(overlay);
+
+		if (dirty != null) {
+			Rectangle view = toView(dirty);
+			invalidateTiles(view);
+			repaintView(view);
+		}
+	}
+
+	/**
+	 * Gets the object that is currently being created.
+	 *
+	 * @return The object that is currently being created, or null if there is
+	 *         none.
+	 */
+	public GeometricalObject getOverlay() {
+		return overlay;
+	}
+
+	/**
+	 * Sets the selection whose objects are highlighted on this canvas. The
+	 * canvas registers itself to the selection and repaints whenever it
+	 * changes.
+	 *
+	 * @param selection
+	 *            The selection of the objects of the drawing, or null if none
+	 *            should be shown.
+	 */
+	public void setSelection(DrawingSelection selection) {
+		if (this.selection != null) {
+			this.selection.removeSelectionListener(this);
+		}
+		this.selection = selection;
+		if (selection != null) {
+			selection.addSelectionListener(this);
+		}
+		repaint();
+	}
+
+	/**
+	 * Sets the marquee, the selection rectangle that is being dragged out.
+	 * Only the area covered by the old and the new marquee is repainted.
+	 *
+	 * @param marquee
+	 *            The marquee in the coordinates of the component, or null if
+	 *            none is being dragged out.
+	 */
+	public void setMarquee(Rectangle marquee) {
+		Rectangle dirty = null;
+		if (this.marquee != null) {
+			dirty = union(dirty, this.marquee);
+		}
+		if (marquee != null) {
+			dirty = union(dirty, marquee);
+		}
+		this.marquee = (marquee == null) ? null : new Rectangle(marquee);
+
+		if (dirty != null) {
+			repaint(dirty.x, dirty.y, dirty.width + 1, dirty.height + 1);
+		}
+	}
+
+	@Override
+	public void selectionChanged(DrawingSelection source, int index0, int index1) {
+		repaint();
+	}
+
+	@Override
+	public void objectsAdded(DrawingModel source, int index0, int index1) {
+		drawingModel = source;
+		repaintObjects(index0, index1);
+	}
+
+	@Override
+	public void objectsRemoved(DrawingModel source, int index0, int index1) {
+		drawingModel = source;
+		if (index0 < paintedCount) {
+			int tail = Math.max(0, paintedCount - (index1 + 1));
+			System.arraycopy(paintedBounds, (index1 + 1) * 4, paintedBounds, index0 * 4, tail * 4);
+			paintedCount = index0 + tail;
+		}
+		tiles.clear();
+		repaint();
+	}
+
+	@Override
+	public void objectsChanged(DrawingModel source, int index0, int index1) {
+		drawingModel = source;
+		repaintObjects(index0, index1);
+	}
+
+	/**
+	 * Method repaints the area covered by the objects in the given index
+	 * interval, both where they were last painted and where they are now. The
+	 * tiles touched by every changed object other than the overlay are
+	 * invalidated.
+	 *
+	 * @param index0
+	 *            The first index of the interval.
+	 * @param index1
+	 *            The last index of the interval.
+	 */
+	private void repaintObjects(int index0, int index1) {
+		index1 = Math.min(index1, drawingModel.getSize() - 1);
+		if (index1 < index0) {
+			return;
+		}
+		if (paintedBounds.length < (index1 + 1) * 4) {
+			paintedBounds = Arrays.copyOf(paintedBounds, Math.max(paintedBounds.length * 2, (index1 + 1) * 4));
+		}
+
+		Rectangle dirty = null;
+		for (int i = index0; i <= index1; i++) {
+			GeometricalObject object = drawingModel.getObject(i);
+			Rectangle r = object.getBoundingRect();
+			int b = i * 4;
+			Rectangle objectDirty = null;
+			if (i < paintedCount) {
+				objectDirty = new Rectangle(paintedBounds[b], paintedBounds[b + 1], paintedBounds[b + 2]
+						- paintedBounds[b] + 1, paintedBounds[b + 3] - paintedBounds[b + 1] + 1);
+			}
+
+			paintedBounds[b] = r.x;
+			paintedBounds[b + 1] = r.y;
+			paintedBounds[b + 2] = r.x + r.width;
+			paintedBounds[b + 3] = r.y + r.height;
+			objectDirty = union(objectDirty, pixels(r));
+
+			dirty = union(dirty, objectDirty);
+			if (!object.equals(overlay)) {
+				invalidateTiles(toView(objectDirty));
+			}
+		}
+		paintedCount = Math.max(paintedCount, index1 + 1);
+
+		if (dirty != null) {
+			repaintView(toView(dirty));
+		}
+	}
+
+	/**
+	 * Method maps the given world rectangle to a view rectangle that covers
+	 * it. The rectangle is grown by a world pixel on every side, since the
+	 * strokes of the objects are scaled as well and can reach half a world
+	 * pixel past their bounds.
+	 *
+	 * @param world
+	 *            The rectangle in world coordinates.
+	 * @return The rectangle in view coordinates.
+	 */
+	private Rectangle toView(Rectangle world) {
+		int x0 = clamp((long) Math.floor((world.x - 1L) * scale));
+		int y0 = clamp((long) Math.floor((world.y - 1L) * scale));
+		int x1 = clamp((long) Math.ceil(((long) world.x + world.width + 1) * scale));
+		int y1 = clamp((long) Math.ceil(((long) world.y + world.height + 1) * scale));
+		return new Rectangle(x0, y0, x1 - x0 + 1, y1 - y0 + 1);
+	}
+
+	/**
+	 * Method repaints the part of the component that shows the given view
+	 * rectangle.
+	 *
+	 * @param view
+	 *            The rectangle in view coordinates.
+	 */
+	private void repaintView(Rectangle view) {
+		repaint(view.x - panX, view.y - panY, view.width, view.height);
+	}
+
+	/**
+	 * Method clamps the given value into the range of an integer.
+	 *
+	 * @param value
+	 *            The value to clamp.
+	 * @return The clamped value.
+	 */
+	private static int clamp(long value) {
+		return (int) Math.max(Integer.MIN_VALUE / 2, Math.min(Integer.MAX_VALUE / 2, value));
+	}
+
+	/**
+	 * Method marks the cached tiles that intersect the given region as dirty.
+	 *
+	 * @param region
+	 *            The region that has to be re-rendered, in view coordinates.
+	 */
+	private void invalidateTiles(Rectangle region) {
+		if (region.isEmpty() || tiles.isEmpty()) {
+			return;
+		}
+		int tx0 = Math.floorDiv(region.x, TILE_SIZE);
+		int ty0 = Math.floorDiv(region.y, TILE_SIZE);
+		int tx1 = Math.floorDiv(region.x + region.width - 1, TILE_SIZE);
+		int ty1 = Math.floorDiv(region.y + region.height - 1, TILE_SIZE);
+
+		if ((long) (tx1 - tx0 + 1) * (ty1 - ty0 + 1) > tiles.size()) {
+			Iterator<Tile> it = tiles.values().iterator();
+			while (it.hasNext()) {
+				Tile tile = it.next();
+				if (tile.tx >= tx0 && tile.tx <= tx1 && tile.ty >= ty0 && tile.ty <= ty1) {
+					tile.dirty = true;
+				}
+			}
+			return;
+		}
+		for (int ty = ty0; ty <= ty1; ty++) {
+			for (int tx = tx0; tx <= tx1; tx++) {
+				Tile tile = tiles.get(key(tx, ty));
+				if (tile != null) {
+					tile.dirty = true;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Method packs the given tile coordinates into a single key.
+	 *
+	 * @param tx
+	 *            The column of the tile.
+	 * @param ty
+	 *            The row of the tile.
+	 * @return The key of the tile.
+	 */
+	private static Long key(int tx, int ty) {
+		return Long.valueOf(((long) tx << 32) | (ty & 0xFFFFFFFFL));
+	}
+
+	/**
+	 * Method obtains the pixels covered by the given bounding rectangle.
+	 * Bounding rectangles are closed, so a rectangle <code>(x, y, w, h)</code>
+	 * covers <code>w + 1</code> by <code>h + 1</code> pixels.
+	 *
+	 * @param bounds
+	 *            The bounding rectangle.
+	 * @return The rectangle of the covered pixels.
+	 */
+	private static Rectangle pixels(Rectangle bounds) {
+		return new Rectangle(bounds.x, bounds.y, bounds.width + 1, bounds.height + 1);
+	}
+
+	/**
+	 * Method extends the given dirty region by the given rectangle.
+	 *
+	 * @param dirty
+	 *            The dirty region so far, or null if it is empty.
+	 * @param r
+	 *            The rectangle to add to the region.
+	 * @return The extended dirty region.
+	 */
+	private static Rectangle union(Rectangle dirty, Rectangle r) {
+		if (dirty == null) {
+			return new Rectangle(r);
+		}
+		dirty.add(r);
+		return dirty;
+	}
+
+	/**
+	 * Method obtains the given tile, creating it if it is not cached, and
+	 * re-renders it if it is dirty.
+	 *
+	 * @param tx
+	 *            The column of the tile.
+	 * @param ty
+	 *            The row of the tile.
+	 * @return The up to date tile.
+	 */
+	private Tile getTile(int tx, int ty) {
+		Long key = key(tx, ty);
+		Tile tile = tiles.get(key);
+		if (tile == null) {
+			int size = TILE_SIZE + 2 * TILE_MARGIN;
+			tile = new Tile(tx, ty, new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB));
+			tiles.put(key, tile);
+		}
+		if (!tile.dirty) {
+			return tile;
+		}
+
+		renderer.setModel(drawingModel);
+		renderer.render(tile.image, tx * TILE_SIZE - TILE_MARGIN, ty * TILE_SIZE - TILE_MARGIN, scale);
+		tile.dirty = false;
+		return tile;
+	}
+
+	@Override
+	protected void paintComponent(Graphics g) {
+		Graphics2D g2d = (Graphics2D) g.create();
+		Rectangle clip = g2d.getClipBounds();
+		if (clip == null) {
+			clip = new Rectangle(0, 0, getWidth(), getHeight());
+		}
+
+		int tx0 = Math.floorDiv(clip.x + panX, TILE_SIZE);
+		int ty0 = Math.floorDiv(clip.y + panY, TILE_SIZE);
+		int tx1 = Math.floorDiv(clip.x + panX + clip.width - 1, TILE_SIZE);
+		int ty1 = Math.floorDiv(clip.y + panY + clip.height - 1, TILE_SIZE);
+		for (int ty = ty0; ty <= ty1; ty++) {
+			for (int tx = tx0; tx <= tx1; tx++) {
+				int x = tx * TILE_SIZE - panX;
+				int y = ty * TILE_SIZE - panY;
+				g2d.drawImage(getTile(tx, ty).image, x, y, x + TILE_SIZE, y + TILE_SIZE, TILE_MARGIN, TILE_MARGIN,
+						TILE_MARGIN + TILE_SIZE, TILE_MARGIN + TILE_SIZE, null);
+			}
+		}
+
+		if (selection != null && !selection.isEmpty()) {
+			paintSelection(g2d, clip);
+		}
+		if (marquee != null) {
+			g2d.setColor(MARQUEE_COLOR);
+			g2d.fillRect(marquee.x, marquee.y, marquee.width, marquee.height);
+			g2d.setColor(SELECTION_COLOR);
+			g2d.drawRect(marquee.x, marquee.y, marquee.width, marquee.height);
+		}
+
+		if (overlay != null) {
+			Rectangle view = toView(pixels(overlay.getBoundingRect()));
+			view.translate(-panX, -panY);
+			if (view.intersects(clip)) {
+				g2d.translate(-panX, -panY);
+				g2d.scale(scale, scale);
+				overlay.paint(g2d);
+			}
+		}
+		g2d.dispose();
+	}
+
+	/**
+	 * Method outlines the bounding rectangles of the selected objects that
+	 * intersect the given clip. A small selection is walked directly, while a
+	 * large one is only checked for the objects the spatial index finds
+	 * inside the clip, so the cost is bounded by whichever is smaller.
+	 *
+	 * @param g2d
+	 *            The graphics to paint with, in the coordinates of the
+	 *            component.
+	 * @param clip
+	 *            The clip in the coordinates of the component.
+	 */
+	private void paintSelection(Graphics2D g2d, Rectangle clip) {
+		int x0 = toWorldX(clip.x) - 1;
+		int y0 = toWorldY(clip.y) - 1;
+		int x1 = toWorldX(clip.x + clip.width) + 1;
+		int y1 = toWorldY(clip.y + clip.height) + 1;
+		Rectangle area = new Rectangle(x0, y0, x1 - x0, y1 - y0);
+
+		g2d.setColor(SELECTION_COLOR);
+		if (selection.getSelectedCount() <= MAX_WALKED_SELECTION) {
+			int size = drawingModel.getSize();
+			for (int i = selection.nextSelected(0); i >= 0 && i < size; i = selection.nextSelected(i + 1)) {
+				paintHighlight(g2d, i, area);
+			}
+		} else {
+			for (int index : drawingModel.getIndicesIn(area)) {
+				if (selection.isSelected(index)) {
+					paintHighlight(g2d, index, area);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Method outlines the bounding rectangle of the given object, if it
+	 * intersects the given area.
+	 *
+	 * @param g2d
+	 *            The graphics to paint with, in the coordinates of the
+	 *            component.
+	 * @param index
+	 *            The index of the object in the model.
+	 * @param area
+	 *            The painted area in world coordinates.
+	 */
+	private void paintHighlight(Graphics2D g2d, int index, Rectangle area) {
+		Rectangle bounds = pixels(drawingModel.getObject(index).getBoundingRect());
+		if (!bounds.intersects(area)) {
+			return;
+		}
+		Rectangle view = toView(bounds);
+		g2d.drawRect(view.x - panX, view.y - panY, view.width - 1, view.height - 1);
+	}
+
+	/**
+	 * A cached tile of the rendered drawing.
+	 *
+	 * @author Marin
+	 *
+	 */
+	private static class Tile {
+		/**
+		 * The column of the tile.
+		 */
+		private final int tx;
+		/**
+		 * The row of the tile.
+		 */
+		private final int ty;
+		/**
+		 * The rendered pixels of the tile, including its margin.
+		 */
+		private final BufferedImage image;
+		/**
+		 * True if the pixels of the tile are out of date.
+		 */
+		private boolean dirty;
+
+		/**
+		 * Creates a new dirty tile.
+		 *
+		 * @param tx
+		 *            The column of the tile.
+		 * @param ty
+		 *            The row of the tile.
+		 * @param image
+		 *            The image holding the pixels of the tile.
+		 */
+		Tile(int tx, int ty, BufferedImage image) {
+			this.tx = tx;
+			this.ty = ty;
+			this.image = image;
+			dirty = true;
+		}
+	}
+
+	/**
+	 * The mouse listener that zooms the viewport with the mouse wheel and pans
+	 * it by dragging with the middle or the right mouse button.
+	 *
+	 * @author Marin
+	 *
+	 */
+	private class ViewportNavigator extends MouseAdapter {
+		/**
+		 * The last point of the current drag, or null if the viewport is not
+		 * being dragged.
+		 */
+		private Point dragStart;
+
+		@Override
+		public void mousePressed(MouseEvent e) {
+			if (SwingUtilities.isMiddleMouseButton(e) || SwingUtilities.isRightMouseButton(e)) {
+				dragStart = e.getPoint();
+			}
+		}
+
+		@Override
+		public void mouseDragged(MouseEvent e) {
+			if (dragStart == null) {
+				return;
+			}
+			Point p = e.getPoint();
+			pan(dragStart.x - p.x, dragStart.y - p.y);
+			dragStart = p;
+		}
+
+		@Override
+		public void mouseReleased(MouseEvent e) {
+			if (SwingUtilities.isMiddleMouseButton(e) || SwingUtilities.isRightMouseButton(e)) {
+				dragStart = null;
+			}
+		}
+
+		@Override
+		public void mouseWheelMoved(MouseWheelEvent e) {
+			zoom(Math.pow(ZOOM_STEP, -e.getPreciseWheelRotation()), e.getPoint());
+		}
+	}
+}
@@ -1,200 +1,359 @@
-package hr.marin.jvdraw;
-
-import hr.marin.jvdraw.actions.ExitAction;
-import hr.marin.jvdraw.actions.ExportAction;
-import hr.marin.jvdraw.actions.OpenAction;
-import hr.marin.jvdraw.actions.SaveAction;
-import hr.marin.jvdraw.actions.SaveAsAction;
-import hr.marin.jvdraw.list.DrawingObjectList;
-import hr.marin.jvdraw.list.DrawingObjectListModel;
-import hr.marin.jvdraw.model.DrawingModel;
-import hr.marin.jvdraw.model.DrawingModelImpl;
-import hr.marin.jvdraw.model.DrawingModelListener;
-import hr.marin.jvdraw.toolbar.JColorArea;
-import hr.marin.jvdraw.toolbar.Shape;
-import hr.marin.jvdraw.toolbar.ShapeButtons;
-
-import java.awt.BorderLayout;
-import java.awt.Color;
-import java.awt.FlowLayout;
-import java.nio.file.Path;
-
-import javax.swing.JFrame;
-import javax.swing.JMenu;
-import javax.swing.JMenuBar;
-import javax.swing.JPanel;
-import javax.swing.SwingUtilities;
-
-/**
- * The class represents a simple vector graphics program capable of drawing
- * lines and circles in different colors and sizes.
- * 
- * @author Marin
- *
- */
-public class JVDraw extends JFrame {
-	/**
-	 * The default serial version UID.
-	 */
-	private static final long serialVersionUID = 1L;
-	/**
-	 * The drawing model used by the drawing canvas
-	 */
-	private DrawingModel drawingModel;
-	/**
-	 * The central component onto which all the shapes are painted
-	 */
-	private JDrawingCanvas drawingCanvas;
-	/**
-	 * The mouse listener used to enable the user to draw shapes using the mouse
-	 */
-	private MouseCreator mouseCreator;
-	/**
-	 * The data model for the drawing object list
-	 */
-	private DrawingObjectListModel listModel;
-	/**
-	 * The path of the currently opened file in the program
-	 */
-	private Path openedFile;
-	/**
-	 * Whether the currently opened file has been modified (true if it has)
-	 */
-	private boolean modified;
-
-	/**
-	 * Initializes the main window of the program.
-	 */
-	public JVDraw() {
-		setDefaultCloseOperation(DISPOSE_ON_CLOSE);
-		setLocation(250, 250);
-		setSize(500, 500);
-		setTitle("JVDraw");
-
-		setLayout(new BorderLayout());
-
-		JPanel toolbar = new JPanel(new FlowLayout(FlowLayout.LEFT));
-
-		JColorArea jca = new JColorArea(Color.BLACK);
-		JColorArea jca2 = new JColorArea(Color.WHITE);
-
-		toolbar.add(jca);
-		toolbar.add(jca2);
-		ShapeButtons sbg = new ShapeButtons(Shape.LINE);
-		toolbar.add(sbg);
-		add(toolbar, BorderLayout.NORTH);
-
-		drawingModel = new DrawingModelImpl();
-		drawingCanvas = new JDrawingCanvas(drawingModel);
-
-		add(drawingCanvas, BorderLayout.CENTER);
-
-		drawingModel.addDrawingModelListener(drawingCanvas);
-		mouseCreator = new MouseCreator(drawingModel, jca, jca2, sbg);
-		drawingCanvas.addMouseListener(mouseCreator);
-		drawingCanvas.addMouseMotionListener(mouseCreator);
-
-		listModel = new DrawingObjectListModel(drawingModel);
-		drawingModel.addDrawingModelListener(listModel);
-
-		add(new DrawingObjectList(listModel), BorderLayout.EAST);
-
-		JMenuBar menuBar = new JMenuBar();
-		setJMenuBar(menuBar);
-		JMenu fileMenu = new JMenu("File");
-		menuBar.add(fileMenu);
-		fileMenu.add(new OpenAction(this));
-		fileMenu.add(new SaveAction(this));
-		fileMenu.add(new SaveAsAction(this));
-		fileMenu.add(new ExportAction(this));
-		fileMenu.add(new ExitAction(this));
-
-		drawingModel.addDrawingModelListener(new DrawingModelListener() {
-			@Override
-			public void objectsRemoved(DrawingModel source, int index0, int index1) {
-				modified = true;
-			}
-
-			@Override
-			public void objectsChanged(DrawingModel source, int index0, int index1) {
-				modified = true;
-			}
-
-			@Override
-			public void objectsAdded(DrawingModel source, int index0, int index1) {
-				modified = true;
-			}
-		});
-
-		add(new StatusBar(jca, jca2), BorderLayout.SOUTH);
-	}
-
-	/**
-	 * This method is called once the program is run.
-	 * 
-	 * @param args
-	 *            Command line arguments. Not used.
-	 */
-	public static void main(String[] args) {
-		SwingUtilities.invokeLater(() -> {
-			new JVDraw().setVisible(true);
-		});
-	}
-
-	/**
-	 * Sets the path of the currently opened file.
-	 * 
-	 * @param path
-	 *            The path of the file.
-	 */
-	public void setOpenedFile(Path path) {
-		openedFile = path;
-	}
-
-	/**
-	 * Gets the path of the currently opened file.
-	 * 
-	 * @return The path of the file.
-	 */
-	public Path getOpenedFile() {
-		return openedFile;
-	}
-
-	/**
-	 * Gets the current drawing model containing the geometric objects.
-	 * 
-	 * @return The current drawing model.
-	 */
-	public DrawingModel getDrawingModel() {
-		return drawingModel;
-	}
-
-	/**
-	 * Checks whether the currently opened file has been modified since it was
-	 * last saved.
-	 * 
-	 * @return True if has been modified, false otherwise
-	 */
-	public boolean modified() {
-		return modified;
-	}
-
-	/**
-	 * Sets the modification status of the currently opened file according to
-	 * the given argument.
-	 * 
-	 * @param modified
-	 *            The modification status (true if the file has been modified,
-	 *            false otherwise).
-	 */
-	public void setModified(boolean modified) {
-		this.modified = modified;
-	}
-
-	/**
-	 * Exits the program by closing the main window.
-	 */
-	public void exit() {
-		dispose();
-	}
-}
+package hr.marin.jvdraw;
+
+import hr.marin.jvdraw.actions.ExitAction;
+import hr.marin.jvdraw.actions.ExportAction;
+import hr.marin.jvdraw.actions.OpenAction;
+import hr.marin.jvdraw.actions.SaveAction;
+import hr.marin.jvdraw.actions.SaveAsAction;
+import hr.marin.jvdraw.list.DrawingObjectList;
+import hr.marin.jvdraw.list.DrawingObjectListModel;
+import hr.marin.jvdraw.model.ColumnarDrawingModel;
+import hr.marin.jvdraw.model.DrawingModel;
+import hr.marin.jvdraw.model.DrawingModelImpl;
+import hr.marin.jvdraw.model.DrawingModelListener;
+import hr.marin.jvdraw.model.DrawingSelection;
+import hr.marin.jvdraw.model.OffHeapDrawingModel;
+import hr.marin.jvdraw.toolbar.JColorArea;
+import hr.marin.jvdraw.toolbar.Shape;
+import hr.marin.jvdraw.toolbar.ShapeButtons;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.FlowLayout;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import javax.swing.JFrame;
+import javax.swing.JMenu;
+import javax.swing.JMenuBar;
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+
+/**
+ * The class represents a simple vector graphics program capable of drawing
+ * lines and circles in different colors and sizes.
+ * 
+ * @author Marin
+ *
+ */
+public class JVDraw extends JFrame {
+	/**
+	 * The default serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+	/**
+	 * The system property that selects the drawing model implementation. If
+	 * it is set to <code>columnar</code>, the objects are stored in a
+	 * {@link ColumnarDrawingModel}. If it is set to <code>offheap</code> or
+	 * <code>mapped</code>, they are stored in an {@link OffHeapDrawingModel},
+	 * in direct buffers or in a temporary memory-mapped file. Otherwise they
+	 * are stored in a {@link DrawingModelImpl}. The temporary file is deleted
+	 * as soon as it is mapped where the platform allows it, and otherwise when
+	 * the window is disposed or, failing that, when the program exits.
+	 */
+	public static final String MODEL_PROPERTY = "jvdraw.model";
+	/**
+	 * The drawing model used by the drawing canvas
+	 */
+	private DrawingModel drawingModel;
+	/**
+	 * The temporary file the records of a mapped drawing model are kept in,
+	 * or null if the model is not mapped
+	 */
+	private Path recordsFile;
+	/**
+	 * The background tasks that add objects to the drawing model, cancelled
+	 * when the window is disposed
+	 */
+	private List<Future<?>> modelTasks = new LinkedList<>();
+	/**
+	 * The central component onto which all the shapes are painted
+	 */
+	private JDrawingCanvas drawingCanvas;
+	/**
+	 * The mouse listener used to enable the user to draw shapes using the mouse
+	 */
+	private MouseCreator mouseCreator;
+	/**
+	 * The selection of the objects of the drawing, shared by the canvas and the drawing object list
+	 */
+	private DrawingSelection selection;
+	/**
+	 * The data model for the drawing object list
+	 */
+	private DrawingObjectListModel listModel;
+	/**
+	 * The path of the currently opened file in the program
+	 */
+	private Path openedFile;
+	/**
+	 * Whether the currently opened file has been modified (true if it has)
+	 */
+	private boolean modified;
+	/**
+	 * The number of changes made to the drawing model so far, used as its
+	 * version
+	 */
+	private long modificationCount;
+	/**
+	 * The status bar displayed at the bottom of the window
+	 */
+	private StatusBar statusBar;
+
+	/**
+	 * Initializes the main window of the program.
+	 */
+	public JVDraw() {
+		setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+		setLocation(250, 250);
+		setSize(500, 500);
+		setTitle("JVDraw");
+
+		setLayout(new BorderLayout());
+
+		JPanel toolbar = new JPanel(new FlowLayout(FlowLayout.LEFT));
+
+		JColorArea jca = new JColorArea(Color.BLACK);
+		JColorArea jca2 = new JColorArea(Color.WHITE);
+
+		toolbar.add(jca);
+		toolbar.add(jca2);
+		ShapeButtons sbg = new ShapeButtons(Shape.LINE);
+		toolbar.add(sbg);
+		add(toolbar, BorderLayout.NORTH);
+
+		drawingModel = createDrawingModel();
+		drawingCanvas = new JDrawingCanvas(drawingModel);
+
+		add(drawingCanvas, BorderLayout.CENTER);
+
+		drawingModel.addDrawingModelListener(drawingCanvas);
+		mouseCreator = new MouseCreator(drawingModel, drawingCanvas, jca, jca2, sbg);
+		drawingCanvas.addMouseListener(mouseCreator);
+		drawingCanvas.addMouseMotionListener(mouseCreator);
+		drawingCanvas.addMouseListener(new ObjectPicker(drawingModel, drawingCanvas));
+
+		selection = new DrawingSelection(drawingModel);
+		drawingCanvas.setSelection(selection);
+		MarqueeSelector marqueeSelector = new MarqueeSelector(drawingModel, drawingCanvas, selection);
+		drawingCanvas.addMouseListener(marqueeSelector);
+		drawingCanvas.addMouseMotionListener(marqueeSelector);
+
+		listModel = new DrawingObjectListModel(drawingModel);
+		drawingModel.addDrawingModelListener(listModel);
+
+		add(new DrawingObjectList(listModel, selection), BorderLayout.EAST);
+
+		JMenuBar menuBar = new JMenuBar();
+		setJMenuBar(menuBar);
+		JMenu fileMenu = new JMenu("File");
+		menuBar.add(fileMenu);
+		fileMenu.add(new OpenAction(this));
+		fileMenu.add(new SaveAction(this));
+		fileMenu.add(new SaveAsAction(this));
+		fileMenu.add(new ExportAction(this));
+		fileMenu.add(new ExitAction(this));
+
+		drawingModel.addDrawingModelListener(new DrawingModelListener() {
+			@Override
+			public void objectsRemoved(DrawingModel source, int index0, int index1) {
+				modified = true;
+				modificationCount++;
+			}
+
+			@Override
+			public void objectsChanged(DrawingModel source, int index0, int index1) {
+				modified = true;
+				modificationCount++;
+			}
+
+			@Override
+			public void objectsAdded(DrawingModel source, int index0, int index1) {
+				modified = true;
+				modificationCount++;
+			}
+		});
+
+		statusBar = new StatusBar(jca, jca2);
+		add(statusBar, BorderLayout.SOUTH);
+	}
+
+	/**
+	 * Method creates the drawing model selected by the {@link #MODEL_PROPERTY}
+	 * system property. If the temporary file of a mapped model cannot be
+	 * created, the records are kept in direct buffers instead. The file is
+	 * deleted right after it has been opened, which POSIX systems allow while
+	 * it stays mapped, so it cannot outlive the program. Where that fails, it
+	 * is deleted when the window is disposed or when the program exits.
+	 *
+	 * @return The created drawing model.
+	 */
+	private DrawingModel createDrawingModel() {
+		String model = System.getProperty(MODEL_PROPERTY, "");
+		switch (model) {
+		case "columnar":
+			return new ColumnarDrawingModel();
+		case "offheap":
+			return new OffHeapDrawingModel();
+		case "mapped":
+			try {
+				recordsFile = Files.createTempFile("jvdraw", ".records");
+				OffHeapDrawingModel mapped = new OffHeapDrawingModel(recordsFile);
+				deleteRecordsFile();
+				if (recordsFile != null) {
+					recordsFile.toFile().deleteOnExit();
+				}
+				return mapped;
+			} catch (IOException e) {
+				deleteRecordsFile();
+				return new OffHeapDrawingModel();
+			}
+		default:
+			return new DrawingModelImpl();
+		}
+	}
+
+	/**
+	 * This method is called once the program is run.
+	 * 
+	 * @param args
+	 *            Command line arguments. Not used.
+	 */
+	public static void main(String[] args) {
+		SwingUtilities.invokeLater(() -> {
+			new JVDraw().setVisible(true);
+		});
+	}
+
+	/**
+	 * Sets the path of the currently opened file.
+	 * 
+	 * @param path
+	 *            The path of the file.
+	 */
+	public void setOpenedFile(Path path) {
+		openedFile = path;
+	}
+
+	/**
+	 * Gets the path of the currently opened file.
+	 * 
+	 * @return The path of the file.
+	 */
+	public Path getOpenedFile() {
+		return openedFile;
+	}
+
+	/**
+	 * Gets the current drawing model containing the geometric objects.
+	 * 
+	 * @return The current drawing model.
+	 */
+	public DrawingModel getDrawingModel() {
+		return drawingModel;
+	}
+
+	/**
+	 * Checks whether the currently opened file has been modified since it was
+	 * last saved.
+	 * 
+	 * @return True if has been modified, false otherwise
+	 */
+	public boolean modified() {
+		return modified;
+	}
+
+	/**
+	 * Gets the version of the drawing model, i.e. the number of changes made
+	 * to it so far.
+	 * 
+	 * @return The version of the drawing model.
+	 */
+	public long getModificationCount() {
+		return modificationCount;
+	}
+
+	/**
+	 * Updates the modification status after the drawing model was saved as it
+	 * was at the given version. If the model has changed since, it remains
+	 * marked as modified.
+	 * 
+	 * @param version
+	 *            The version of the drawing model that was saved.
+	 */
+	public void markSaved(long version) {
+		modified = (modificationCount != version);
+	}
+
+	/**
+	 * Gets the status bar of the window.
+	 * 
+	 * @return The status bar.
+	 */
+	public StatusBar getStatusBar() {
+		return statusBar;
+	}
+
+	/**
+	 * Exits the program by closing the main window.
+	 */
+	public void exit() {
+		dispose();
+	}
+
+	/**
+	 * Registers a background task that adds objects to the drawing model. The
+	 * task is cancelled when the window is disposed, before the model is
+	 * closed. Must be called on the Event Dispatch Thread.
+	 *
+	 * @param task
+	 *            The task to register.
+	 */
+	public void addModelTask(Future<?> task) {
+		modelTasks.removeIf(Future::isDone);
+		modelTasks.add(task);
+	}
+
+	/**
+	 * {@inheritDoc} The running background tasks that add objects to the
+	 * drawing model are cancelled, the model is closed if it holds any
+	 * resources, and the temporary file of a mapped model is deleted.
+	 */
+	@Override
+	public void dispose() {
+		super.dispose();
+		for (Future<?> task : modelTasks) {
+			task.cancel(false);
+		}
+		modelTasks.clear();
+		if (drawingModel instanceof Closeable) {
+			try {
+				((Closeable) drawingModel).close();
+			} catch (IOException e) {
+			}
+		}
+		deleteRecordsFile();
+	}
+
+	/**
+	 * Method deletes the temporary file of a mapped drawing model, if there is
+	 * one. If the file cannot be deleted, for example because the platform
+	 * does not allow deleting a file that is open or mapped, it is kept, so
+	 * that deleting it can be tried again later.
+	 */
+	private void deleteRecordsFile() {
+		if (recordsFile == null) {
+			return;
+		}
+		try {
+			Files.deleteIfExists(recordsFile);
+			recordsFile = null;
+		} catch (IOException e) {
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package hr.marin.jvdraw;
+
+import hr.marin.jvdraw.model.DrawingModel;
+import hr.marin.jvdraw.model.DrawingSelection;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.BitSet;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * A mouse listener implementation that is used to enable the user to select objects by dragging a rectangle (a
+ * marquee) over the canvas with the left mouse button. Every object that lies inside the marquee or crosses it is
+ * selected once the mouse button is released. If the shift key is held down, the objects are added to the current
+ * selection instead of replacing it.
+ * @author Marin
+ *
+ */
+public class MarqueeSelector extends MouseAdapter {
+	/**
+	 * The smallest distance, in pixels, the mouse has to be dragged for a marquee to be shown
+	 */
+	private static final int DRAG_THRESHOLD = 3;
+	/**
+	 * The drawing model containing the objects that are selected
+	 */
+	private DrawingModel model;
+	/**
+	 * The canvas on which the marquee is dragged out
+	 */
+	private JDrawingCanvas canvas;
+	/**
+	 * The selection that is changed
+	 */
+	private DrawingSelection selection;
+	/**
+	 * The point where the current drag started, or null if no marquee is being dragged out
+	 */
+	private Point start;
+	/**
+	 * The current marquee, or null if the mouse has not been dragged far enough yet
+	 */
+	private Rectangle marquee;
+
+	/**
+	 * Creates a new {@link MarqueeSelector} object with the given arguments.
+	 * @param model The drawing model containing the objects that are selected
+	 * @param canvas The canvas on which the marquee is dragged out
+	 * @param selection The selection that is changed
+	 */
+	public MarqueeSelector(DrawingModel model, JDrawingCanvas canvas, DrawingSelection selection) {
+		this.model = model;
+		this.canvas = canvas;
+		this.selection = selection;
+	}
+
+	@Override
+	public void mousePressed(MouseEvent e) {
+		if (!SwingUtilities.isLeftMouseButton(e) || e.isControlDown() || canvas.getOverlay() != null) {
+			return;
+		}
+
+		start = e.getPoint();
+		marquee = null;
+	}
+
+	@Override
+	public void mouseDragged(MouseEvent e) {
+		if (start == null) {
+			return;
+		}
+
+		Point p = e.getPoint();
+		if (marquee == null && Math.abs(p.x - start.x) < DRAG_THRESHOLD && Math.abs(p.y - start.y) < DRAG_THRESHOLD) {
+			return;
+		}
+		marquee = new Rectangle(Math.min(start.x, p.x), Math.min(start.y, p.y), Math.abs(p.x - start.x),
+				Math.abs(p.y - start.y));
+		canvas.setMarquee(marquee);
+	}
+
+	@Override
+	public void mouseReleased(MouseEvent e) {
+		if (start == null || !SwingUtilities.isLeftMouseButton(e)) {
+			return;
+		}
+
+		start = null;
+		if (marquee == null) {
+			return;
+		}
+		canvas.setMarquee(null);
+
+		int x0 = canvas.toWorldX(marquee.x);
+		int y0 = canvas.toWorldY(marquee.y);
+		int x1 = canvas.toWorldX(marquee.x + marquee.width);
+		int y1 = canvas.toWorldY(marquee.y + marquee.height);
+		marquee = null;
+
+		BitSet indices = new BitSet(model.getSize());
+		for (int index : model.getIndicesIntersecting(new Rectangle(x0, y0, x1 - x0, y1 - y0))) {
+			indices.set(index);
+		}
+		if (e.isShiftDown()) {
+			selection.addSelected(indices);
+		} else {
+			selection.setSelected(indices);
+		}
+	}
+}
@@ -1,98 +1,125 @@
-package hr.marin.jvdraw;
-
-import hr.marin.jvdraw.geometric.Circle;
-import hr.marin.jvdraw.geometric.GeometricalObject;
-import hr.marin.jvdraw.geometric.Line;
-import hr.marin.jvdraw.model.DrawingModel;
-import hr.marin.jvdraw.toolbar.IColorProvider;
-import hr.marin.jvdraw.toolbar.IShapeProvider;
-
-import java.awt.Point;
-import java.awt.event.MouseAdapter;
-import java.awt.event.MouseEvent;
-
-/**
- * A mouse listener implementation that is used to enable the user to draw shapes by using a mouse.
- * @author Marin
- *
- */
-public class MouseCreator extends MouseAdapter {
-	/**
-	 * The drawing model to which the geometric shapes that are to be drawn are added
-	 */
-	private DrawingModel model;
-	/**
-	 * The provider for the foreground color
-	 */
-	private IColorProvider foreground;
-	/**
-	 * The provider for the background color
-	 */
-	private IColorProvider background;
-	/**
-	 * The currently selected geometric shape
-	 */
-	private IShapeProvider shape;
-	/**
-	 * True if there has been an odd number of clicks, false if there has been an even number of clicks
-	 */
-	private boolean clicked;
-	/**
-	 * The geometric object that is being drawn currently
-	 */
-	private GeometricalObject current;
-	
-	/**
-	 * Creates a new {@link MouseCreator} object with the given arguments.
-	 * @param model The drawing model to which the geometric shapes that are to be drawn are added
-	 * @param foreground The provider for the foreground color
-	 * @param background The provider for the background color
-	 * @param shape The currently selected geometric shape
-	 */
-	public MouseCreator(DrawingModel model, IColorProvider foreground, IColorProvider background, IShapeProvider shape) {
-		this.model = model;
-		this.foreground = foreground;
-		this.background = background;
-		this.shape = shape;
-		clicked = false;
-	}
-
-	@Override
-	public void mouseClicked(MouseEvent e) {
-		Point p = e.getPoint();
-		if (!clicked) {
-			switch (shape.getCurrentShape()) {
-			case LINE:
-				current = new Line(p, p, foreground.getCurrentColor());
-				break;
-			case CIRCLE_EMPTY:
-				current = new Circle(p, 0, foreground.getCurrentColor(), null);
-				break;
-			case CIRCLE_FILLED:
-				current = new Circle(p, 0, foreground.getCurrentColor(), background.getCurrentColor());
-				break;
-			}
-			model.add(current);
-		}
-		
-		clicked = !clicked;
-	}
-	
-	@Override
-	public void mouseMoved(MouseEvent e) {
-		if(!clicked) {
-			return;
-		}
-		
-		Point p = e.getPoint();
-		if(current instanceof Line){
-			((Line) current).setEnd(p);
-		} else if(current instanceof Circle) {
-			Circle c = (Circle) current;
-			int newX = p.x - c.getCenter().x;
-			int newY = p.y - c.getCenter().y;
-			int r = (int) Math.sqrt(newX*newX + newY*newY);
-			c.setRadius(r);
-		}
-	}
-}
+package hr.marin.jvdraw;
+
+import hr.marin.jvdraw.geometric.Circle;
+import hr.marin.jvdraw.geometric.GeometricalObject;
+import hr.marin.jvdraw.geometric.Line;
+import hr.marin.jvdraw.model.DrawingModel;
+import hr.marin.jvdraw.toolbar.IColorProvider;
+import hr.marin.jvdraw.toolbar.IShapeProvider;
+
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * A mouse listener implementation that is used to enable the user to draw shapes by using a mouse. Shapes are drawn
+ * with the left mouse button, clicks with the control key held down are left to the {@link ObjectPicker}, and the
+ * points of the mouse events are mapped through the viewport of the canvas.
+ * @author Marin
+ *
+ */
+public class MouseCreator extends MouseAdapter {
+	/**
+	 * The drawing model to which the geometric shapes that are to be drawn are added
+	 */
+	private DrawingModel model;
+	/**
+	 * The canvas on which the geometric object that is being drawn is shown as an overlay
+	 */
+	private JDrawingCanvas canvas;
+	/**
+	 * The provider for the foreground color
+	 */
+	private IColorProvider foreground;
+	/**
+	 * The provider for the background color
+	 */
+	private IColorProvider background;
+	/**
+	 * The currently selected geometric shape
+	 */
+	private IShapeProvider shape;
+	/**
+	 * True if there has been an odd number of clicks, false if there has been an even number of clicks
+	 */
+	private boolean clicked;
+	/**
+	 * The geometric object that is being drawn currently
+	 */
+	private GeometricalObject current;
+	/**
+	 * The x coordinate of the point where the current object was started
+	 */
+	private int originX;
+	/**
+	 * The y coordinate of the point where the current object was started
+	 */
+	private int originY;
+	
+	/**
+	 * Creates a new {@link MouseCreator} object with the given arguments.
+	 * @param model The drawing model to which the geometric shapes that are to be drawn are added
+	 * @param canvas The canvas on which the geometric object that is being drawn is shown as an overlay
+	 * @param foreground The provider for the foreground color
+	 * @param background The provider for the background color
+	 * @param shape The currently selected geometric shape
+	 */
+	public MouseCreator(DrawingModel model, JDrawingCanvas canvas, IColorProvider foreground,
+			IColorProvider background, IShapeProvider shape) {
+		this.model = model;
+		this.canvas = canvas;
+		this.foreground = foreground;
+		this.background = background;
+		this.shape = shape;
+		clicked = false;
+	}
+
+	@Override
+	public void mouseClicked(MouseEvent e) {
+		if (!SwingUtilities.isLeftMouseButton(e) || e.isControlDown()) {
+			return;
+		}
+
+		if (!clicked) {
+			originX = canvas.toWorldX(e.getX());
+			originY = canvas.toWorldY(e.getY());
+			switch (shape.getCurrentShape()) {
+			case LINE:
+				current = new Line(originX, originY, originX, originY, foreground.getCurrentColor());
+				break;
+			case CIRCLE_EMPTY:
+				current = new Circle(originX, originY, 0, foreground.getCurrentColor(), null);
+				break;
+			case CIRCLE_FILLED:
+				current = new Circle(originX, originY, 0, foreground.getCurrentColor(), background.getCurrentColor());
+				break;
+			}
+			model.add(current);
+			current = model.getObject(model.getSize() - 1);
+			canvas.setOverlay(current);
+		} else {
+			canvas.setOverlay(null);
+		}
+		
+		clicked = !clicked;
+	}
+	
+	@Override
+	public void mouseMoved(MouseEvent e) {
+		if(!clicked) {
+			return;
+		}
+		
+		int x = canvas.toWorldX(e.getX());
+		int y = canvas.toWorldY(e.getY());
+		if(current instanceof Line){
+			((Line) current).setEnd(x, y);
+		} else if(current instanceof Circle) {
+			long newX = (long) x - originX;
+			long newY = (long) y - originY;
+			int r = (int) Math.min(Integer.MAX_VALUE, Math.sqrt(newX*newX + newY*newY));
+			((Circle) current).setRadius(r);
+		}
+	}
+}
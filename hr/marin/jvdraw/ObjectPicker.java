@@ -0,0 +1,52 @@
+package hr.marin.jvdraw;
+
+import hr.marin.jvdraw.list.ListModifyDialog;
+import hr.marin.jvdraw.model.DrawingModel;
+
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+
+import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
+
+/**
+ * A mouse listener implementation that is used to enable the user to pick the objects of the drawing directly on the
+ * canvas. When the user clicks the left mouse button with the control key held down, the topmost object under the
+ * mouse is found and a dialog enabling the user to change its parameters is displayed.
+ * @author Marin
+ *
+ */
+public class ObjectPicker extends MouseAdapter {
+	/**
+	 * The drawing model containing the objects that are picked
+	 */
+	private DrawingModel model;
+	/**
+	 * The canvas on which the objects are picked
+	 */
+	private JDrawingCanvas canvas;
+
+	/**
+	 * Creates a new {@link ObjectPicker} object with the given arguments.
+	 * @param model The drawing model containing the objects that are picked
+	 * @param canvas The canvas on which the objects are picked
+	 */
+	public ObjectPicker(DrawingModel model, JDrawingCanvas canvas) {
+		this.model = model;
+		this.canvas = canvas;
+	}
+
+	@Override
+	public void mouseClicked(MouseEvent e) {
+		if (!SwingUtilities.isLeftMouseButton(e) || !e.isControlDown()) {
+			return;
+		}
+
+		int index = canvas.getObjectIndexAt(e.getPoint());
+		if (index == -1) {
+			return;
+		}
+
+		JOptionPane.showMessageDialog(canvas, new ListModifyDialog(model.getObject(index)));
+	}
+}
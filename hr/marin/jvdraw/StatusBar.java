@@ -1,58 +1,148 @@
-package hr.marin.jvdraw;
-
-import java.awt.Color;
-
-import hr.marin.jvdraw.toolbar.ColorChangeListener;
-import hr.marin.jvdraw.toolbar.IColorProvider;
-import hr.marin.jvdraw.toolbar.JColorArea;
-
-import javax.swing.JLabel;
-
-/**
- * The status bar for the {@link JVDraw} program that displays the currently selected foreground and background colors.
- * @author Marin
- *
- */
-public class StatusBar extends JLabel implements ColorChangeListener {
-	/**
-	 * The default serial version UID.
-	 */
-	private static final long serialVersionUID = 1L;
-	/**
-	 * The provider for the currently selected foreground color.
-	 */
-	private JColorArea foreground;
-	/**
-	 * The provider for the currently selected background color.
-	 */
-	private JColorArea background;
-
-	/**
-	 * Creates the status bar with the given color providers.
-	 * @param foreground The color provider for the foreground color.
-	 * @param background The color provider for the background color.
-	 */
-	public StatusBar(JColorArea foreground, JColorArea background) {
-		this.foreground = foreground;
-		foreground.addColorChangeListener(this);
-		this.background = background;
-		background.addColorChangeListener(this);
-
-		updateText();
-	}
-
-	/**
-	 * Method updates the text of the status bar to match the currently selected colors.
-	 */
-	private void updateText() {
-		Color f = foreground.getCurrentColor();
-		Color b = background.getCurrentColor();
-		setText("Foreground color: (" + f.getRed() + ", " + f.getGreen() + ", " + f.getBlue()
-				+ "), background color: (" + b.getRed() + ", " + b.getGreen() + ", " + b.getBlue() + ").");
-	}
-
-	@Override
-	public void newColorSelected(IColorProvider source, Color oldColor, Color newColor) {
-		updateText();
-	}
-}
+package hr.marin.jvdraw;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.FlowLayout;
+
+import hr.marin.jvdraw.toolbar.ColorChangeListener;
+import hr.marin.jvdraw.toolbar.IColorProvider;
+import hr.marin.jvdraw.toolbar.JColorArea;
+
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+
+/**
+ * The status bar for the {@link JVDraw} program that displays the currently selected foreground and background colors.
+ * It also displays the progress of a long-running task, such as saving a document, while there is one.
+ * @author Marin
+ *
+ */
+public class StatusBar extends JPanel implements ColorChangeListener {
+	/**
+	 * The default serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+	/**
+	 * The provider for the currently selected foreground color.
+	 */
+	private JColorArea foreground;
+	/**
+	 * The provider for the currently selected background color.
+	 */
+	private JColorArea background;
+	/**
+	 * The label displaying the currently selected colors.
+	 */
+	private JLabel colorLabel;
+	/**
+	 * The label displaying the description of the current task, or the outcome of the last one.
+	 */
+	private JLabel taskLabel;
+	/**
+	 * The progress bar of the current task.
+	 */
+	private JProgressBar progressBar;
+	/**
+	 * The button that cancels the current task.
+	 */
+	private JButton cancelButton;
+	/**
+	 * The action run when the current task is cancelled, or null if it cannot be cancelled.
+	 */
+	private Runnable onCancel;
+
+	/**
+	 * Creates the status bar with the given color providers.
+	 * @param foreground The color provider for the foreground color.
+	 * @param background The color provider for the background color.
+	 */
+	public StatusBar(JColorArea foreground, JColorArea background) {
+		super(new BorderLayout());
+		this.foreground = foreground;
+		foreground.addColorChangeListener(this);
+		this.background = background;
+		background.addColorChangeListener(this);
+
+		colorLabel = new JLabel();
+		add(colorLabel, BorderLayout.CENTER);
+
+		JPanel taskPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 5, 0));
+		taskLabel = new JLabel();
+		progressBar = new JProgressBar(0, 100);
+		progressBar.setVisible(false);
+		cancelButton = new JButton("Cancel");
+		cancelButton.setVisible(false);
+		cancelButton.addActionListener(e -> {
+			if (onCancel != null) {
+				onCancel.run();
+			}
+		});
+		taskPanel.add(taskLabel);
+		taskPanel.add(progressBar);
+		taskPanel.add(cancelButton);
+		add(taskPanel, BorderLayout.EAST);
+
+		updateText();
+	}
+
+	/**
+	 * Method updates the text of the status bar to match the currently selected colors.
+	 */
+	private void updateText() {
+		Color f = foreground.getCurrentColor();
+		Color b = background.getCurrentColor();
+		colorLabel.setText("Foreground color: (" + f.getRed() + ", " + f.getGreen() + ", " + f.getBlue()
+				+ "), background color: (" + b.getRed() + ", " + b.getGreen() + ", " + b.getBlue() + ").");
+	}
+
+	/**
+	 * Method displays the given task with an empty progress bar. Must be called on the Event Dispatch Thread.
+	 * @param description The description of the task.
+	 */
+	public void startTask(String description) {
+		startTask(description, null);
+	}
+
+	/**
+	 * Method displays the given task with an empty progress bar and, if the task can be cancelled, a cancel button.
+	 * Must be called on the Event Dispatch Thread.
+	 * @param description The description of the task.
+	 * @param onCancel The action run when the user cancels the task, or null if the task cannot be cancelled.
+	 */
+	public void startTask(String description, Runnable onCancel) {
+		this.onCancel = onCancel;
+		taskLabel.setText(description);
+		progressBar.setValue(0);
+		progressBar.setVisible(true);
+		cancelButton.setVisible(onCancel != null);
+		revalidate();
+	}
+
+	/**
+	 * Method updates the progress bar of the current task. Must be called on the Event Dispatch Thread.
+	 * @param percent The progress of the task, from 0 to 100.
+	 */
+	public void setTaskProgress(int percent) {
+		progressBar.setValue(percent);
+	}
+
+	/**
+	 * Method hides the progress bar and displays the outcome of the finished task. Must be called on the Event
+	 * Dispatch Thread.
+	 * @param message The message describing the outcome of the task.
+	 */
+	public void finishTask(String message) {
+		onCancel = null;
+		taskLabel.setText(message);
+		progressBar.setVisible(false);
+		cancelButton.setVisible(false);
+		revalidate();
+	}
+
+	@Override
+	public void newColorSelected(IColorProvider source, Color oldColor, Color newColor) {
+		updateText();
+	}
+}
@@ -0,0 +1,248 @@
+package hr.marin.jvdraw.actions;
+
+import hr.marin.jvdraw.JVDraw;
+import hr.marin.jvdraw.StatusBar;
+import hr.marin.jvdraw.geometric.GeometricalObject;
+import hr.marin.jvdraw.io.SvgWriter;
+import hr.marin.jvdraw.model.DrawingModel;
+import hr.marin.jvdraw.model.DrawingModelImpl;
+import hr.marin.jvdraw.render.Renderer;
+import hr.marin.jvdraw.render.TiledExporter;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.zip.GZIPOutputStream;
+
+import javax.imageio.ImageIO;
+import javax.swing.JOptionPane;
+import javax.swing.SwingWorker;
+
+/**
+ * <p>
+ * A {@link SwingWorker} that exports a snapshot of the drawing model to an
+ * image file off the Event Dispatch Thread. The progress is shown in the
+ * {@link StatusBar} of the {@link JVDraw} window, together with a button that
+ * cancels the export.
+ * </p>
+ * <p>
+ * SVG images are streamed object by object through an {@link SvgWriter},
+ * optionally compressed with gzip for the .svgz extension. PNG images are
+ * rendered in parallel tiles and streamed to the file by a
+ * {@link TiledExporter}. Both use memory independent of the size of the image.
+ * The other formats are rendered into a single image that is written by
+ * {@link ImageIO}.
+ * If the export fails or is cancelled, the partially written file is deleted.
+ * </p>
+ *
+ * @author Marin
+ *
+ */
+class ExportWorker extends SwingWorker<Void, Void> {
+	/**
+	 * The size of the output buffers.
+	 */
+	private static final int BUFFER_SIZE = 1 << 16;
+	/**
+	 * The number of objects written between two checks for cancellation.
+	 */
+	private static final int PROGRESS_STEP = 1 << 12;
+
+	/**
+	 * The main window of the {@link JVDraw} program.
+	 */
+	private JVDraw frame;
+	/**
+	 * The copies of the objects that are exported.
+	 */
+	private List<GeometricalObject> snapshot;
+	/**
+	 * The bounds of the snapshot, or null if it is empty.
+	 */
+	private Rectangle bounds;
+	/**
+	 * The file the image is exported to.
+	 */
+	private Path path;
+	/**
+	 * The format of the image, as understood by {@link ImageIO}.
+	 */
+	private String format;
+
+	/**
+	 * Creates a new {@link ExportWorker} that exports the current state of the
+	 * drawing model of the given window. The snapshot of the model is taken
+	 * immediately, so this constructor must be called on the Event Dispatch
+	 * Thread.
+	 *
+	 * @param frame
+	 *            The main window of the {@link JVDraw} program.
+	 * @param path
+	 *            The file the image is exported to.
+	 * @param format
+	 *            The format of the image, as understood by {@link ImageIO}.
+	 */
+	ExportWorker(JVDraw frame, Path path, String format) {
+		this.frame = frame;
+		this.path = path;
+		this.format = format;
+		snapshot = SaveUtility.snapshot(frame.getDrawingModel());
+		bounds = frame.getDrawingModel().getBounds();
+
+		StatusBar statusBar = frame.getStatusBar();
+		statusBar.startTask("Exporting " + path.getFileName() + "...", () -> cancel(false));
+		addPropertyChangeListener(e -> {
+			if ("progress".equals(e.getPropertyName())) {
+				statusBar.setTaskProgress((Integer) e.getNewValue());
+			}
+		});
+	}
+
+	@Override
+	protected Void doInBackground() throws Exception {
+		if (bounds == null) {
+			throw new IOException("The drawing is empty, there is nothing to export.");
+		}
+
+		boolean done = false;
+		try {
+			if ("svg".equalsIgnoreCase(format) || "svgz".equalsIgnoreCase(format)) {
+				exportSvg("svgz".equalsIgnoreCase(format));
+			} else if ("png".equalsIgnoreCase(format)) {
+				exportPng();
+			} else {
+				exportImage();
+			}
+			done = true;
+		} finally {
+			if (!done) {
+				Files.deleteIfExists(path);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Method streams the objects of the snapshot into an SVG image.
+	 *
+	 * @param compressed
+	 *            Whether the image is compressed with gzip.
+	 * @throws IOException
+	 *             If the image could not be written.
+	 */
+	private void exportSvg(boolean compressed) throws IOException {
+		try (OutputStream file = Files.newOutputStream(path)) {
+			OutputStream out = compressed ? new GZIPOutputStream(file, BUFFER_SIZE) : file;
+			Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+
+			try (SvgWriter svg = new SvgWriter(writer, bounds)) {
+				for (int i = 0, n = snapshot.size(); i < n; i++) {
+					if (i % PROGRESS_STEP == 0) {
+						checkCancelled();
+						setProgress((int) (i * 100L / n));
+					}
+					svg.write(snapshot.get(i));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Method renders the snapshot in parallel tiles and streams them into a
+	 * PNG image.
+	 *
+	 * @throws IOException
+	 *             If the image could not be written.
+	 */
+	private void exportPng() throws IOException {
+		Rectangle area = getArea();
+		DrawingModel model = toModel();
+		OutputStream out = new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE);
+		new TiledExporter().writePng(model, area, out, rows -> {
+			checkCancelled();
+			setProgress((int) (rows * 100L / area.height));
+		});
+	}
+
+	/**
+	 * Method renders the snapshot into a single image and writes it with
+	 * {@link ImageIO}.
+	 *
+	 * @throws IOException
+	 *             If the image could not be written, or its format is not
+	 *             supported.
+	 */
+	private void exportImage() throws IOException {
+		Rectangle area = getArea();
+		BufferedImage image = new BufferedImage(area.width, area.height, BufferedImage.TYPE_3BYTE_BGR);
+		new Renderer(toModel()).render(image, area.x, area.y, 1);
+		checkCancelled();
+		if (!ImageIO.write(image, format, path.toFile())) {
+			throw new IOException("Images cannot be exported in the " + format + " format.");
+		}
+	}
+
+	/**
+	 * Method obtains the pixels covered by the drawing. The bounds of the
+	 * drawing are closed, so the area is one pixel wider and higher.
+	 *
+	 * @return The pixels covered by the drawing.
+	 */
+	private Rectangle getArea() {
+		return new Rectangle(bounds.x, bounds.y, bounds.width + 1, bounds.height + 1);
+	}
+
+	/**
+	 * Method moves the snapshot into a new drawing model, so that it can be
+	 * rendered through the spatial index of the model.
+	 *
+	 * @return The drawing model holding the snapshot.
+	 */
+	private DrawingModel toModel() {
+		DrawingModel drawingModel = new DrawingModelImpl();
+		drawingModel.addAll(snapshot);
+		snapshot = null;
+		return drawingModel;
+	}
+
+	/**
+	 * Method stops the export if it has been cancelled.
+	 *
+	 * @throws CancellationException
+	 *             If the export has been cancelled.
+	 */
+	private void checkCancelled() {
+		if (isCancelled()) {
+			throw new CancellationException();
+		}
+	}
+
+	@Override
+	protected void done() {
+		StatusBar statusBar = frame.getStatusBar();
+		try {
+			get();
+		} catch (CancellationException e) {
+			statusBar.finishTask("Exporting " + path.getFileName() + " cancelled.");
+			return;
+		} catch (InterruptedException | ExecutionException e) {
+			Throwable cause = (e.getCause() == null) ? e : e.getCause();
+			statusBar.finishTask("Exporting " + path.getFileName() + " failed.");
+			JOptionPane.showMessageDialog(frame, cause.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+			return;
+		}
+
+		statusBar.finishTask("Exported " + path.getFileName() + ".");
+	}
+}
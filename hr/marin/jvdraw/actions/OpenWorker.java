@@ -0,0 +1,171 @@
+package hr.marin.jvdraw.actions;
+
+import hr.marin.jvdraw.JVDraw;
+import hr.marin.jvdraw.StatusBar;
+import hr.marin.jvdraw.geometric.GeometricalObject;
+import hr.marin.jvdraw.io.DocumentFormat;
+import hr.marin.jvdraw.model.DrawingModel;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+
+import javax.swing.JOptionPane;
+import javax.swing.SwingWorker;
+
+/**
+ * <p>
+ * A {@link SwingWorker} that reads a document off the Event Dispatch Thread
+ * and adds its objects to the drawing model as they are read.
+ * </p>
+ * <p>
+ * The objects are published in batches of at most {@link #PUBLISH_SIZE}
+ * objects, however large the chunks the document is read in. Every batch that
+ * reaches the Event Dispatch Thread is added to the model within a single
+ * model batch, so the canvas and the object list are updated once per batch
+ * and fill in progressively. The reading waits whenever
+ * {@link #MAX_PENDING} batches are still waiting for the Event Dispatch
+ * Thread, so the work done there at a time stays bounded. Batches that arrive
+ * after the opening was cancelled are dropped, and the document is reported
+ * as opened only once its last batch is in the model. The progress is shown
+ * in the {@link StatusBar} of the {@link JVDraw} window, together with a
+ * button that cancels the opening.
+ * </p>
+ *
+ * @author Marin
+ *
+ */
+class OpenWorker extends SwingWorker<Integer, List<GeometricalObject>> {
+	/**
+	 * The largest number of objects in a published batch.
+	 */
+	private static final int PUBLISH_SIZE = 8192;
+	/**
+	 * The largest number of published batches that are not yet added to the
+	 * model.
+	 */
+	private static final int MAX_PENDING = 4;
+
+	/**
+	 * The main window of the {@link JVDraw} program.
+	 */
+	private JVDraw frame;
+	/**
+	 * The file that is opened.
+	 */
+	private Path path;
+	/**
+	 * The permits for publishing a batch, one per batch that may still be
+	 * waiting for the Event Dispatch Thread.
+	 */
+	private Semaphore pending;
+	/**
+	 * The number of objects added to the model so far.
+	 */
+	private int added;
+	/**
+	 * The number of objects read from the document, or -1 until the reading
+	 * has succeeded.
+	 */
+	private int total = -1;
+
+	/**
+	 * Creates a new {@link OpenWorker} that opens the given file in the given
+	 * window. Must be called on the Event Dispatch Thread.
+	 *
+	 * @param frame
+	 *            The main window of the {@link JVDraw} program.
+	 * @param path
+	 *            The file that is opened.
+	 */
+	OpenWorker(JVDraw frame, Path path) {
+		this.frame = frame;
+		this.path = path;
+		pending = new Semaphore(MAX_PENDING);
+
+		StatusBar statusBar = frame.getStatusBar();
+		statusBar.startTask("Opening " + path.getFileName() + "...", () -> cancel(false));
+		addPropertyChangeListener(e -> {
+			if ("progress".equals(e.getPropertyName())) {
+				statusBar.setTaskProgress((Integer) e.getNewValue());
+			}
+		});
+	}
+
+	@Override
+	protected Integer doInBackground() throws Exception {
+		long size = Math.max(Files.size(path), 1);
+		int[] count = new int[1];
+		DocumentFormat.detect(path).read(path, (batch, bytesRead) -> {
+			count[0] += batch.size();
+			for (int from = 0, n = batch.size(); from < n; from += PUBLISH_SIZE) {
+				pending.acquireUninterruptibly();
+				if (isCancelled()) {
+					throw new CancellationException();
+				}
+				publish(batch.subList(from, Math.min(n, from + PUBLISH_SIZE)));
+			}
+			setProgress((int) (bytesRead * 100 / size));
+		});
+		return count[0];
+	}
+
+	@Override
+	protected void process(List<List<GeometricalObject>> batches) {
+		try {
+			if (isCancelled()) {
+				return;
+			}
+			DrawingModel drawingModel = frame.getDrawingModel();
+			drawingModel.beginBatch();
+			try {
+				for (List<GeometricalObject> batch : batches) {
+					drawingModel.addAll(batch);
+					added += batch.size();
+				}
+			} finally {
+				drawingModel.endBatch();
+			}
+		} finally {
+			pending.release(batches.size());
+		}
+
+		if (added == total) {
+			opened();
+		}
+	}
+
+	@Override
+	protected void done() {
+		StatusBar statusBar = frame.getStatusBar();
+		int count;
+		try {
+			count = get();
+		} catch (CancellationException e) {
+			statusBar.finishTask("Opening " + path.getFileName() + " cancelled.");
+			return;
+		} catch (InterruptedException | ExecutionException e) {
+			Throwable cause = (e.getCause() == null) ? e : e.getCause();
+			statusBar.finishTask("Opening " + path.getFileName() + " failed.");
+			JOptionPane.showMessageDialog(frame, cause.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+			return;
+		}
+
+		total = count;
+		if (added == total) {
+			opened();
+		}
+	}
+
+	/**
+	 * Method marks the document as opened once all of its objects are in the
+	 * model.
+	 */
+	private void opened() {
+		frame.setOpenedFile(path);
+		frame.getStatusBar().finishTask("Opened " + path.getFileName() + " (" + total + " objects).");
+	}
+}
@@ -1,113 +1,220 @@
-package hr.marin.jvdraw.actions;
-
-import hr.marin.jvdraw.geometric.Circle;
-import hr.marin.jvdraw.geometric.GeometricalObject;
-import hr.marin.jvdraw.geometric.Line;
-import hr.marin.jvdraw.model.DrawingModel;
-
-import java.awt.Color;
-import java.awt.Point;
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
-
-import javax.swing.JFileChooser;
-import javax.swing.JOptionPane;
-import javax.swing.filechooser.FileNameExtensionFilter;
-
-/**
- * A utility class containing methods used by the SaveAction and SaveAsAction
- * classes.
- * 
- * @author Marin
- *
- */
-public class SaveUtility {
-	/**
-	 * Method creates a textual representation of the given drawing model and
-	 * saves it to the file with the given path.
-	 * 
-	 * @param drawingModel
-	 *            The drawing model whose textual representation is to be saved
-	 *            to the given file.
-	 * @param openedFilePath
-	 *            The file that will store the textual representation of the
-	 *            drawing model.
-	 */
-	public static void saveToPath(DrawingModel drawingModel, Path openedFilePath) {
-		StringBuilder sb = new StringBuilder();
-
-		for (int i = 0, n = drawingModel.getSize(); i < n; i++) {
-			sb.append(toText(drawingModel.getObject(i)) + "\n");
-		}
-
-		try {
-			Files.write(openedFilePath, sb.toString().getBytes(StandardCharsets.UTF_8));
-		} catch (IOException e1) {
-			JOptionPane.showMessageDialog(null, e1.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-			return;
-		}
-	}
-
-	/**
-	 * Method generates a textual representation of the given geometric object.
-	 * 
-	 * @param object
-	 *            The geometric object whose textual representation is to be
-	 *            generated.
-	 * @return The textual representation of the given geometric object.
-	 */
-	public static String toText(GeometricalObject object) {
-		String text = "";
-		if (object.getClass() == Line.class) {
-			Line line = (Line) object;
-			Point st = line.getStart();
-			Point end = line.getEnd();
-			Color c = line.getForegroundColor();
-			text = "LINE " + st.x + " " + st.y + " " + end.x + " " + end.y + " " + c.getRed() + " " + c.getGreen()
-					+ " " + c.getBlue();
-		} else {
-			Circle circle = (Circle) object;
-			Point c = circle.getCenter();
-			int r = circle.getRadius();
-			Color out = circle.getForegroundColor();
-			Color fill = circle.getBackgroundColor();
-			text += (fill == null ? "CIRCLE " : "FCIRCLE ");
-			text += c.x + " " + c.y + " " + r + " " + out.getRed() + " " + out.getGreen() + " " + out.getBlue();
-			text += (fill == null ? "" : " " + fill.getRed() + " " + fill.getGreen() + " " + fill.getBlue());
-		}
-
-		return text;
-	}
-
-	/**
-	 * Method displays a dialog asking the user to choose a file that will be
-	 * the save destination.
-	 * 
-	 * @return The file that the user chose to save to.
-	 */
-	public static Path chooseFile() {
-		JFileChooser fc = new JFileChooser();
-		FileNameExtensionFilter filter = new FileNameExtensionFilter("Jvd files", "jvd");
-		fc.setFileFilter(filter);
-
-		fc.setDialogTitle("Save document");
-		if (fc.showSaveDialog(null) != JFileChooser.APPROVE_OPTION) {
-			JOptionPane
-					.showMessageDialog(null, "Nothing was saved.", "System message", JOptionPane.INFORMATION_MESSAGE);
-			return null;
-		}
-
-		Path file = fc.getSelectedFile().toPath();
-		if (Files.exists(file)) {
-			int r = JOptionPane.showConfirmDialog(null, "The file " + file + " already exists. Overwrite?", "Warning",
-					JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE);
-			if (r != JOptionPane.YES_OPTION) {
-				return null;
-			}
-		}
-
-		return file;
-	}
-}
+package hr.marin.jvdraw.actions;
+
+import hr.marin.jvdraw.JVDraw;
+import hr.marin.jvdraw.geometric.GeometricalObject;
+import hr.marin.jvdraw.io.DocumentFormat;
+import hr.marin.jvdraw.io.DrawingWriter;
+import hr.marin.jvdraw.model.DrawingModel;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+import javax.swing.JFileChooser;
+import javax.swing.JOptionPane;
+import javax.swing.filechooser.FileNameExtensionFilter;
+
+/**
+ * A utility class containing methods used by the SaveAction and SaveAsAction
+ * classes.
+ * 
+ * @author Marin
+ *
+ */
+public class SaveUtility {
+	/**
+	 * The number of objects written between two progress reports.
+	 */
+	private static final int PROGRESS_STEP = 1 << 12;
+	/**
+	 * The executor running the save workers one at a time, in the order they
+	 * were started. Its thread is not a daemon, so a save in progress is
+	 * finished before the program exits, and it stops once the queue is
+	 * empty.
+	 */
+	private static final ExecutorService SAVE_EXECUTOR = new ThreadPoolExecutor(0, 1, 1, TimeUnit.SECONDS,
+			new LinkedBlockingQueue<>());
+
+	/**
+	 * Method saves the drawing model of the given window to the file with the
+	 * given path without blocking the Event Dispatch Thread. A snapshot of the
+	 * model is taken immediately and written to the file by a background
+	 * worker, while the progress is shown in the status bar of the window.
+	 * Saves run one at a time, in the order they were started, so an older
+	 * snapshot can never be written over a newer one.
+	 * 
+	 * @param frame
+	 *            The main window of the {@link JVDraw} program.
+	 * @param openedFilePath
+	 *            The file the drawing is saved to.
+	 * @param onSuccess
+	 *            The action run on the Event Dispatch Thread once the drawing
+	 *            has been saved, or null.
+	 */
+	public static void saveInBackground(JVDraw frame, Path openedFilePath, Runnable onSuccess) {
+		SAVE_EXECUTOR.execute(new SaveWorker(frame, openedFilePath, onSuccess));
+	}
+
+	/**
+	 * Method creates copies of all the geometric objects in the given drawing
+	 * model, so they can be saved while the model keeps changing.
+	 * 
+	 * @param drawingModel
+	 *            The drawing model to copy.
+	 * @return The copies of the geometric objects, in model order.
+	 */
+	public static List<GeometricalObject> snapshot(DrawingModel drawingModel) {
+		int n = drawingModel.getSize();
+		List<GeometricalObject> snapshot = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			snapshot.add(drawingModel.getObject(i).copy());
+		}
+		return snapshot;
+	}
+
+	/**
+	 * <p>
+	 * Method writes the given geometric objects to the file with the given
+	 * path, in the format chosen by its extension (see
+	 * {@link DocumentFormat#forPath(Path)}).
+	 * </p>
+	 * <p>
+	 * The objects are streamed to a temporary file in the same directory,
+	 * which is forced to the storage device and then moved over the target
+	 * file in a single step. A failure at any point leaves the previous
+	 * contents of the target file intact. If the target file exists, its
+	 * POSIX permissions, owner and group are copied to the temporary file
+	 * once it has been written, just before the move, so the replaced
+	 * document keeps them even if it is not writable by its owner.
+	 * </p>
+	 * 
+	 * @param objects
+	 *            The geometric objects to write.
+	 * @param path
+	 *            The file to write to.
+	 * @param progress
+	 *            Receives the number of objects written so far, or null.
+	 * @throws IOException
+	 *             If the file could not be written.
+	 */
+	public static void writeAtomically(List<GeometricalObject> objects, Path path, IntConsumer progress)
+			throws IOException {
+		Path target = path.toAbsolutePath();
+		Path temp = Files.createTempFile(target.getParent(), "." + target.getFileName(), ".tmp");
+		try {
+			try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+					DrawingWriter writer = DocumentFormat.forPath(target).newWriter(channel)) {
+				for (int i = 0, n = objects.size(); i < n; i++) {
+					writer.write(objects.get(i));
+					if (progress != null && (i + 1) % PROGRESS_STEP == 0) {
+						progress.accept(i + 1);
+					}
+				}
+				writer.flush();
+				channel.force(true);
+			}
+
+			copyAttributes(target, temp);
+			try {
+				Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+
+		if (progress != null) {
+			progress.accept(objects.size());
+		}
+	}
+
+	/**
+	 * Method copies the POSIX permissions, owner and group of the given file
+	 * to the other file. Nothing is copied if the source file does not exist
+	 * or the file system does not support POSIX attributes. The owner and the
+	 * group are changed only where the file system allows it, since only a
+	 * privileged user may give a file away. The permissions are set last, so
+	 * a change of the owner cannot clear them.
+	 * 
+	 * @param source
+	 *            The file whose attributes are copied.
+	 * @param target
+	 *            The file the attributes are copied to.
+	 * @throws IOException
+	 *             If the attributes could not be read or the permissions could
+	 *             not be set.
+	 */
+	private static void copyAttributes(Path source, Path target) throws IOException {
+		PosixFileAttributeView view = Files.getFileAttributeView(target, PosixFileAttributeView.class);
+		if (view == null || !Files.exists(source)) {
+			return;
+		}
+
+		PosixFileAttributes attributes = Files.readAttributes(source, PosixFileAttributes.class);
+		try {
+			PosixFileAttributes current = view.readAttributes();
+			if (!current.group().equals(attributes.group())) {
+				view.setGroup(attributes.group());
+			}
+			if (!current.owner().equals(attributes.owner())) {
+				view.setOwner(attributes.owner());
+			}
+		} catch (FileSystemException e) {
+			// the user is not allowed to change the owner or the group
+		}
+		view.setPermissions(attributes.permissions());
+	}
+
+	/**
+	 * Method displays a dialog asking the user to choose a file that will be
+	 * the save destination. If the chosen file name has no extension, the
+	 * extension of the selected format is appended to it.
+	 * 
+	 * @return The file that the user chose to save to.
+	 */
+	public static Path chooseFile() {
+		JFileChooser fc = new JFileChooser();
+		fc.setAcceptAllFileFilterUsed(false);
+		for (DocumentFormat format : DocumentFormat.values()) {
+			fc.addChoosableFileFilter(new FileNameExtensionFilter(format.getDescription(), format.getExtension()));
+		}
+		fc.setFileFilter(fc.getChoosableFileFilters()[0]);
+
+		fc.setDialogTitle("Save document");
+		if (fc.showSaveDialog(null) != JFileChooser.APPROVE_OPTION) {
+			JOptionPane
+					.showMessageDialog(null, "Nothing was saved.", "System message", JOptionPane.INFORMATION_MESSAGE);
+			return null;
+		}
+
+		Path file = fc.getSelectedFile().toPath();
+		if (file.getFileName().toString().indexOf('.') == -1) {
+			FileNameExtensionFilter selected = (FileNameExtensionFilter) fc.getFileFilter();
+			file = file.resolveSibling(file.getFileName() + "." + selected.getExtensions()[0]);
+		}
+		if (Files.exists(file)) {
+			int r = JOptionPane.showConfirmDialog(null, "The file " + file + " already exists. Overwrite?", "Warning",
+					JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE);
+			if (r != JOptionPane.YES_OPTION) {
+				return null;
+			}
+		}
+
+		return file;
+	}
+}
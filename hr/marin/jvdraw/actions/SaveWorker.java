@@ -0,0 +1,106 @@
+package hr.marin.jvdraw.actions;
+
+import hr.marin.jvdraw.JVDraw;
+import hr.marin.jvdraw.StatusBar;
+import hr.marin.jvdraw.geometric.GeometricalObject;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import javax.swing.JOptionPane;
+import javax.swing.SwingWorker;
+
+/**
+ * <p>
+ * A {@link SwingWorker} that saves a snapshot of the drawing model to a file
+ * off the Event Dispatch Thread. The progress is shown in the
+ * {@link StatusBar} of the {@link JVDraw} window.
+ * </p>
+ * <p>
+ * Once the snapshot has been written, the modification status of the window
+ * is updated according to the model version the snapshot was taken at, so any
+ * change made while saving keeps the document marked as modified.
+ * </p>
+ *
+ * @author Marin
+ *
+ */
+class SaveWorker extends SwingWorker<Void, Void> {
+	/**
+	 * The main window of the {@link JVDraw} program.
+	 */
+	private JVDraw frame;
+	/**
+	 * The copies of the objects that are saved.
+	 */
+	private List<GeometricalObject> snapshot;
+	/**
+	 * The model version the snapshot was taken at.
+	 */
+	private long version;
+	/**
+	 * The file the snapshot is saved to.
+	 */
+	private Path path;
+	/**
+	 * The action run on the Event Dispatch Thread after a successful save, or
+	 * null.
+	 */
+	private Runnable onSuccess;
+
+	/**
+	 * Creates a new {@link SaveWorker} that saves the current state of the
+	 * drawing model of the given window. The snapshot of the model is taken
+	 * immediately, so this constructor must be called on the Event Dispatch
+	 * Thread.
+	 *
+	 * @param frame
+	 *            The main window of the {@link JVDraw} program.
+	 * @param path
+	 *            The file the drawing is saved to.
+	 * @param onSuccess
+	 *            The action run on the Event Dispatch Thread after a
+	 *            successful save, or null.
+	 */
+	SaveWorker(JVDraw frame, Path path, Runnable onSuccess) {
+		this.frame = frame;
+		this.path = path;
+		this.onSuccess = onSuccess;
+		version = frame.getModificationCount();
+		snapshot = SaveUtility.snapshot(frame.getDrawingModel());
+
+		StatusBar statusBar = frame.getStatusBar();
+		statusBar.startTask("Saving " + path.getFileName() + "...");
+		addPropertyChangeListener(e -> {
+			if ("progress".equals(e.getPropertyName())) {
+				statusBar.setTaskProgress((Integer) e.getNewValue());
+			}
+		});
+	}
+
+	@Override
+	protected Void doInBackground() throws Exception {
+		int n = snapshot.size();
+		SaveUtility.writeAtomically(snapshot, path, written -> setProgress((int) (written * 100L / Math.max(n, 1))));
+		return null;
+	}
+
+	@Override
+	protected void done() {
+		try {
+			get();
+		} catch (InterruptedException | ExecutionException e) {
+			Throwable cause = (e.getCause() == null) ? e : e.getCause();
+			frame.getStatusBar().finishTask("Saving " + path.getFileName() + " failed.");
+			JOptionPane.showMessageDialog(frame, cause.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+			return;
+		}
+
+		frame.markSaved(version);
+		frame.getStatusBar().finishTask("Saved " + path.getFileName() + ".");
+		if (onSuccess != null) {
+			onSuccess.run();
+		}
+	}
+}
@@ -0,0 +1,357 @@
+package hr.marin.jvdraw.benchmark;
+
+import hr.marin.jvdraw.geometric.Circle;
+import hr.marin.jvdraw.geometric.ColorPalette;
+import hr.marin.jvdraw.geometric.GeometricalObject;
+import hr.marin.jvdraw.geometric.Line;
+import hr.marin.jvdraw.io.JvdParser;
+import hr.marin.jvdraw.model.ColumnarDrawingModel;
+import hr.marin.jvdraw.model.DrawingModel;
+import hr.marin.jvdraw.model.DrawingModelImpl;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * A simple benchmark that measures the memory used to load a .jvd document. It
+ * generates a random document with the given number of objects (one million
+ * by default), drawn in the given number of distinct colors (16 by default),
+ * and loads it into a drawing model several ways. For every way it prints the
+ * number of bytes allocated and the number of bytes still retained on the
+ * heap after garbage collection, per loaded object.
+ * </p>
+ * <p>
+ * All the ways parse the document with the same {@link JvdParser}, and differ
+ * only in the objects it creates. The <code>points</code> way creates them the
+ * way the parser used to, with a {@link Point} per coordinate pair and a new
+ * {@link Color} per color of every record. The <code>unshared</code> way
+ * stores the coordinates as integers, but still creates a new {@link Color}
+ * per color. The <code>shared</code> way keeps the objects as the parser
+ * creates them, with integer coordinates and colors shared through the
+ * {@link ColorPalette}. These three load into a {@link DrawingModelImpl}. The
+ * <code>columnar</code> way loads the shared objects into a
+ * {@link ColumnarDrawingModel}.
+ * </p>
+ * <p>
+ * Usage:
+ * <code>java hr.marin.jvdraw.benchmark.AllocationBenchmark [objects [colors]]</code>
+ * </p>
+ *
+ * @author Marin
+ *
+ */
+public class AllocationBenchmark {
+	/**
+	 * The number of measured runs per way of loading.
+	 */
+	private static final int RUNS = 3;
+
+	/**
+	 * This method is called once the benchmark is run.
+	 *
+	 * @param args
+	 *            Command line arguments. The first, optional, argument is the
+	 *            number of objects in the generated document, and the second
+	 *            the number of distinct colors.
+	 * @throws IOException
+	 *             If the document could not be parsed.
+	 */
+	public static void main(String[] args) throws IOException {
+		int objects = (args.length > 0) ? Integer.parseInt(args[0]) : 1_000_000;
+		int colors = (args.length > 1) ? Integer.parseInt(args[1]) : 16;
+		byte[] document = generateDocument(objects, colors);
+		System.out.printf("Document: %d objects, %d colors, %.1f MB%n", objects, colors, document.length / 1e6);
+
+		for (int run = -1; run < RUNS; run++) {
+			boolean warmup = run < 0;
+			measure("points", document, warmup, DrawingModelImpl::new, new PointParser());
+			measure("unshared", document, warmup, DrawingModelImpl::new, new UnsharedParser());
+			measure("shared", document, warmup, DrawingModelImpl::new, new JvdParser());
+			measure("columnar", document, warmup, ColumnarDrawingModel::new, new JvdParser());
+		}
+	}
+
+	/**
+	 * Method loads the document once and prints the memory it took.
+	 *
+	 * @param name
+	 *            The name of the way of loading.
+	 * @param document
+	 *            The loaded document.
+	 * @param warmup
+	 *            True if this is a warmup run, whose results are not printed.
+	 * @param models
+	 *            The factory of the model the document is loaded into.
+	 * @param parser
+	 *            The parser that creates the loaded objects.
+	 * @throws IOException
+	 *             If the document could not be parsed.
+	 */
+	private static void measure(String name, byte[] document, boolean warmup, Supplier<DrawingModel> models,
+			JvdParser parser) throws IOException {
+		long retainedBefore = retainedBytes();
+		long allocatedBefore = allocatedBytes();
+
+		DrawingModel model = models.get();
+		model.beginBatch();
+		parser.parse(Channels.newChannel(new ByteArrayInputStream(document)), model::add);
+		model.endBatch();
+
+		long allocated = allocatedBytes() - allocatedBefore;
+		long retained = retainedBytes() - retainedBefore;
+		int count = model.getSize();
+		if (!warmup) {
+			System.out.printf("%-10s %8.1f bytes allocated/object %8.1f bytes retained/object%n", name,
+					(double) allocated / count, (double) retained / count);
+		}
+	}
+
+	/**
+	 * Method generates a random document with the given number of objects.
+	 *
+	 * @param objects
+	 *            The number of objects in the document.
+	 * @param colors
+	 *            The number of distinct colors used by the objects.
+	 * @return The bytes of the document.
+	 */
+	private static byte[] generateDocument(int objects, int colors) {
+		Random random = new Random(42);
+		int[] palette = new int[colors];
+		for (int i = 0; i < colors; i++) {
+			palette[i] = random.nextInt(1 << 24);
+		}
+
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < objects; i++) {
+			int x = random.nextInt(10_000);
+			int y = random.nextInt(10_000);
+			switch (random.nextInt(3)) {
+			case 0:
+				sb.append("LINE ").append(x).append(' ').append(y).append(' ').append(x + random.nextInt(200))
+						.append(' ').append(y + random.nextInt(200));
+				appendColor(sb, palette[random.nextInt(colors)]);
+				break;
+			case 1:
+				sb.append("CIRCLE ").append(x).append(' ').append(y).append(' ').append(random.nextInt(100));
+				appendColor(sb, palette[random.nextInt(colors)]);
+				break;
+			default:
+				sb.append("FCIRCLE ").append(x).append(' ').append(y).append(' ').append(random.nextInt(100));
+				appendColor(sb, palette[random.nextInt(colors)]);
+				appendColor(sb, palette[random.nextInt(colors)]);
+				break;
+			}
+			sb.append('\n');
+		}
+		return sb.toString().getBytes(StandardCharsets.US_ASCII);
+	}
+
+	/**
+	 * Method appends the components of the given color, each preceded by a
+	 * space.
+	 *
+	 * @param sb
+	 *            The builder to append to.
+	 * @param rgb
+	 *            The color to append.
+	 */
+	private static void appendColor(StringBuilder sb, int rgb) {
+		sb.append(' ').append((rgb >> 16) & 0xFF).append(' ').append((rgb >> 8) & 0xFF).append(' ')
+				.append(rgb & 0xFF);
+	}
+
+	/**
+	 * Method obtains the number of bytes allocated by the current thread so
+	 * far, if the JVM supports it.
+	 *
+	 * @return The number of allocated bytes, or 0 if it is not supported.
+	 */
+	private static long allocatedBytes() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return 0;
+	}
+
+	/**
+	 * Method obtains the number of bytes used on the heap after garbage
+	 * collection.
+	 *
+	 * @return The number of used bytes.
+	 */
+	private static long retainedBytes() {
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+	}
+
+	/**
+	 * A {@link JvdParser} that creates a new {@link Color} per color of every
+	 * record, instead of sharing them through the {@link ColorPalette}.
+	 *
+	 * @author Marin
+	 *
+	 */
+	private static class UnsharedParser extends JvdParser {
+		@Override
+		protected Color createColor(int red, int green, int blue) {
+			return new Color(red, green, blue);
+		}
+	}
+
+	/**
+	 * An {@link UnsharedParser} that also keeps the coordinates of every
+	 * object in {@link Point}s, the way lines and circles used to.
+	 *
+	 * @author Marin
+	 *
+	 */
+	private static class PointParser extends UnsharedParser {
+		@Override
+		protected GeometricalObject createLine(int startX, int startY, int endX, int endY, Color color) {
+			return new PointLine(new Point(startX, startY), new Point(endX, endY), color);
+		}
+
+		@Override
+		protected GeometricalObject createCircle(int centerX, int centerY, int radius, Color outline, Color fill) {
+			return new PointCircle(new Point(centerX, centerY), radius, outline, fill);
+		}
+	}
+
+	/**
+	 * A line that keeps its ends in {@link Point}s. Everything but its bounds
+	 * is delegated to an equal {@link Line}, since only its memory is
+	 * measured.
+	 *
+	 * @author Marin
+	 *
+	 */
+	private static class PointLine extends GeometricalObject {
+		/**
+		 * The starting point of the line.
+		 */
+		private Point start;
+		/**
+		 * The ending point of the line.
+		 */
+		private Point end;
+
+		/**
+		 * Creates a new {@link PointLine}.
+		 *
+		 * @param start
+		 *            The starting point of the line.
+		 * @param end
+		 *            The ending point of the line.
+		 * @param color
+		 *            The color of the line.
+		 */
+		PointLine(Point start, Point end, Color color) {
+			super(color, null);
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		public Rectangle getBoundingRect() {
+			int x = Math.min(start.x, end.x);
+			int y = Math.min(start.y, end.y);
+			return new Rectangle(x, y, Math.max(start.x, end.x) - x, Math.max(start.y, end.y) - y);
+		}
+
+		@Override
+		public void paint(Graphics2D g) {
+			copy().paint(g);
+		}
+
+		@Override
+		public boolean contains(double x, double y, double tolerance) {
+			return copy().contains(x, y, tolerance);
+		}
+
+		@Override
+		public boolean intersects(Rectangle area) {
+			return copy().intersects(area);
+		}
+
+		@Override
+		public GeometricalObject copy() {
+			return new Line(start, end, getForegroundColor());
+		}
+	}
+
+	/**
+	 * A circle that keeps its center in a {@link Point}. Everything but its
+	 * bounds is delegated to an equal {@link Circle}, since only its memory is
+	 * measured.
+	 *
+	 * @author Marin
+	 *
+	 */
+	private static class PointCircle extends GeometricalObject {
+		/**
+		 * The center of the circle.
+		 */
+		private Point center;
+		/**
+		 * The radius of the circle.
+		 */
+		private int radius;
+
+		/**
+		 * Creates a new {@link PointCircle}.
+		 *
+		 * @param center
+		 *            The center of the circle.
+		 * @param radius
+		 *            The radius of the circle.
+		 * @param outline
+		 *            The outline color of the circle.
+		 * @param fill
+		 *            The fill color of the circle, or null if it is empty.
+		 */
+		PointCircle(Point center, int radius, Color outline, Color fill) {
+			super(outline, fill);
+			this.center = center;
+			this.radius = radius;
+		}
+
+		@Override
+		public Rectangle getBoundingRect() {
+			return new Rectangle(center.x - radius, center.y - radius, 2 * radius, 2 * radius);
+		}
+
+		@Override
+		public void paint(Graphics2D g) {
+			copy().paint(g);
+		}
+
+		@Override
+		public boolean contains(double x, double y, double tolerance) {
+			return copy().contains(x, y, tolerance);
+		}
+
+		@Override
+		public boolean intersects(Rectangle area) {
+			return copy().intersects(area);
+		}
+
+		@Override
+		public GeometricalObject copy() {
+			return new Circle(center, radius, getForegroundColor(), getBackgroundColor());
+		}
+	}
+}
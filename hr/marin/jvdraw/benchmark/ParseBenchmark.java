@@ -0,0 +1,221 @@
+package hr.marin.jvdraw.benchmark;
+
+import hr.marin.jvdraw.geometric.Circle;
+import hr.marin.jvdraw.geometric.GeometricalObject;
+import hr.marin.jvdraw.geometric.Line;
+import hr.marin.jvdraw.io.JvdParser;
+
+import java.awt.Color;
+import java.awt.Point;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <p>
+ * A simple benchmark that measures the throughput of the .jvd parser. It
+ * writes a random document with the given number of objects (one million by
+ * default) to a temporary file and then parses it repeatedly, both with the
+ * {@link JvdParser} and with the line and regex based approach that was used
+ * before it.
+ * </p>
+ * <p>
+ * Usage: <code>java hr.marin.jvdraw.benchmark.ParseBenchmark [objects]</code>
+ * </p>
+ *
+ * @author Marin
+ *
+ */
+public class ParseBenchmark {
+	/**
+	 * The number of measured runs per parser.
+	 */
+	private static final int RUNS = 5;
+
+	/**
+	 * This method is called once the benchmark is run.
+	 *
+	 * @param args
+	 *            Command line arguments. The first, optional, argument is the
+	 *            number of objects in the generated document.
+	 * @throws IOException
+	 *             If the temporary document could not be written or read.
+	 */
+	public static void main(String[] args) throws IOException {
+		int objects = (args.length > 0) ? Integer.parseInt(args[0]) : 1_000_000;
+		Path file = Files.createTempFile("jvdraw-bench", ".jvd");
+		try {
+			writeDocument(file, objects);
+			long bytes = Files.size(file);
+			System.out.printf("Document: %d objects, %.1f MB%n", objects, bytes / 1e6);
+
+			for (int run = -2; run < RUNS; run++) {
+				boolean warmup = run < 0;
+				measure("legacy", file, bytes, warmup, () -> parseLegacy(file));
+				measure("streaming", file, bytes, warmup, () -> parseStreaming(file));
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	/**
+	 * Method runs the given parser once and prints its throughput.
+	 *
+	 * @param name
+	 *            The name of the parser.
+	 * @param file
+	 *            The parsed file.
+	 * @param bytes
+	 *            The size of the parsed file.
+	 * @param warmup
+	 *            True if this is a warmup run, whose results are not printed.
+	 * @param parser
+	 *            The parser to run.
+	 * @throws IOException
+	 *             If the file could not be read.
+	 */
+	private static void measure(String name, Path file, long bytes, boolean warmup, Parser parser)
+			throws IOException {
+		long allocatedBefore = allocatedBytes();
+		long start = System.nanoTime();
+		int count = parser.parse();
+		double seconds = (System.nanoTime() - start) / 1e9;
+		long allocated = allocatedBytes() - allocatedBefore;
+
+		if (!warmup) {
+			System.out.printf("%-10s %8.1f MB/s %12.0f objects/s %8.1f bytes allocated/object%n", name, bytes / 1e6
+					/ seconds, count / seconds, (double) allocated / count);
+		}
+	}
+
+	/**
+	 * Method parses the file with the {@link JvdParser}.
+	 *
+	 * @param file
+	 *            The file to parse.
+	 * @return The number of parsed objects.
+	 * @throws IOException
+	 *             If the file could not be read.
+	 */
+	private static int parseStreaming(Path file) throws IOException {
+		int[] count = new int[1];
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			new JvdParser().parse(channel, o -> count[0]++);
+		}
+		return count[0];
+	}
+
+	/**
+	 * Method parses the file the way the program used to, by reading all the
+	 * lines and splitting them with a regular expression.
+	 *
+	 * @param file
+	 *            The file to parse.
+	 * @return The number of parsed objects.
+	 * @throws IOException
+	 *             If the file could not be read.
+	 */
+	private static int parseLegacy(Path file) throws IOException {
+		List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+		int count = 0;
+		for (String line : lines) {
+			line = line.trim();
+			GeometricalObject go = null;
+			if (line.startsWith("LINE")) {
+				String[] s = line.substring(4).trim().split(" +");
+				go = new Line(new Point(Integer.parseInt(s[0]), Integer.parseInt(s[1])), new Point(
+						Integer.parseInt(s[2]), Integer.parseInt(s[3])), new Color(Integer.parseInt(s[4]),
+						Integer.parseInt(s[5]), Integer.parseInt(s[6])));
+			} else if (line.startsWith("CIRCLE")) {
+				String[] s = line.substring(6).trim().split(" +");
+				go = new Circle(new Point(Integer.parseInt(s[0]), Integer.parseInt(s[1])), Integer.parseInt(s[2]),
+						new Color(Integer.parseInt(s[3]), Integer.parseInt(s[4]), Integer.parseInt(s[5])), null);
+			} else if (line.startsWith("FCIRCLE")) {
+				String[] s = line.substring(7).trim().split(" +");
+				go = new Circle(new Point(Integer.parseInt(s[0]), Integer.parseInt(s[1])), Integer.parseInt(s[2]),
+						new Color(Integer.parseInt(s[3]), Integer.parseInt(s[4]), Integer.parseInt(s[5])), new Color(
+								Integer.parseInt(s[6]), Integer.parseInt(s[7]), Integer.parseInt(s[8])));
+			}
+			if (go != null) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Method writes a random document with the given number of objects.
+	 *
+	 * @param file
+	 *            The file to write to.
+	 * @param objects
+	 *            The number of objects in the document.
+	 * @throws IOException
+	 *             If the file could not be written.
+	 */
+	private static void writeDocument(Path file, int objects) throws IOException {
+		Random random = new Random(42);
+		try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			for (int i = 0; i < objects; i++) {
+				int x = random.nextInt(10_000);
+				int y = random.nextInt(10_000);
+				switch (random.nextInt(3)) {
+				case 0:
+					writer.write("LINE " + x + " " + y + " " + (x + random.nextInt(200)) + " "
+							+ (y + random.nextInt(200)) + " " + random.nextInt(256) + " " + random.nextInt(256) + " "
+							+ random.nextInt(256));
+					break;
+				case 1:
+					writer.write("CIRCLE " + x + " " + y + " " + random.nextInt(100) + " " + random.nextInt(256) + " "
+							+ random.nextInt(256) + " " + random.nextInt(256));
+					break;
+				default:
+					writer.write("FCIRCLE " + x + " " + y + " " + random.nextInt(100) + " " + random.nextInt(256)
+							+ " " + random.nextInt(256) + " " + random.nextInt(256) + " " + random.nextInt(256) + " "
+							+ random.nextInt(256) + " " + random.nextInt(256));
+					break;
+				}
+				writer.newLine();
+			}
+		}
+	}
+
+	/**
+	 * Method obtains the number of bytes allocated by the current thread so
+	 * far, if the JVM supports it.
+	 *
+	 * @return The number of allocated bytes, or 0 if it is not supported.
+	 */
+	private static long allocatedBytes() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return 0;
+	}
+
+	/**
+	 * A parser whose throughput is measured.
+	 *
+	 * @author Marin
+	 *
+	 */
+	private interface Parser {
+		/**
+		 * Method parses the benchmark document.
+		 *
+		 * @return The number of parsed objects.
+		 * @throws IOException
+		 *             If the document could not be read.
+		 */
+		int parse() throws IOException;
+	}
+}
@@ -0,0 +1,192 @@
+package hr.marin.jvdraw.benchmark;
+
+import hr.marin.jvdraw.geometric.Circle;
+import hr.marin.jvdraw.geometric.GeometricalObject;
+import hr.marin.jvdraw.geometric.Line;
+import hr.marin.jvdraw.render.BatchRenderer;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <p>
+ * A simple benchmark that measures the cost of painting a scene of geometric
+ * objects into an image. Every frame is painted the way the objects used
+ * to paint themselves, with a copy of the {@link Graphics2D} object created
+ * and disposed per object, with a single {@link Graphics2D} object shared by
+ * the whole frame, and through a {@link BatchRenderer} that groups the
+ * objects by color.
+ * </p>
+ * <p>
+ * Usage:
+ * <code>java hr.marin.jvdraw.benchmark.RenderBenchmark [objects [colors]]</code>
+ * </p>
+ *
+ * @author Marin
+ *
+ */
+public class RenderBenchmark {
+	/**
+	 * The width and height of the painted image.
+	 */
+	private static final int SIZE = 2000;
+	/**
+	 * The number of measured frames per run.
+	 */
+	private static final int FRAMES = 10;
+	/**
+	 * The number of measured runs per painting approach.
+	 */
+	private static final int RUNS = 5;
+
+	/**
+	 * This method is called once the benchmark is run.
+	 *
+	 * @param args
+	 *            Command line arguments. The first, optional, argument is the
+	 *            number of objects in the scene. The second, optional,
+	 *            argument is the number of distinct colors in the scene; by
+	 *            default every object has a random color.
+	 */
+	public static void main(String[] args) {
+		int objects = (args.length > 0) ? Integer.parseInt(args[0]) : 100_000;
+		int colors = (args.length > 1) ? Integer.parseInt(args[1]) : 0x1000000;
+		List<GeometricalObject> scene = createScene(objects, colors);
+		BufferedImage image = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+		System.out.printf("Scene: %d objects, %d colors, %dx%d pixels%n", objects, colors, SIZE, SIZE);
+
+		for (int run = -2; run < RUNS; run++) {
+			boolean warmup = run < 0;
+			measure("copy per object", image, scene, warmup, (g, frame) -> {
+				for (GeometricalObject object : frame) {
+					Graphics2D copy = (Graphics2D) g.create();
+					object.paint(copy);
+					copy.dispose();
+				}
+			});
+			measure("shared", image, scene, warmup, (g, frame) -> {
+				for (GeometricalObject object : frame) {
+					object.paint(g);
+				}
+			});
+			measure("batched", image, scene, warmup, (g, frame) -> {
+				BatchRenderer renderer = new BatchRenderer(g);
+				for (GeometricalObject object : frame) {
+					renderer.paint(object);
+				}
+				renderer.flush();
+			});
+		}
+	}
+
+	/**
+	 * Method paints a number of frames with the given painter and
+	 * prints the frame time and the allocations per frame.
+	 *
+	 * @param name
+	 *            The name of the painting approach.
+	 * @param image
+	 *            The image the frames are painted into.
+	 * @param scene
+	 *            The objects of the scene.
+	 * @param warmup
+	 *            True if this is a warmup run, whose results are not printed.
+	 * @param painter
+	 *            The painter that paints the objects of a frame.
+	 */
+	private static void measure(String name, BufferedImage image, List<GeometricalObject> scene, boolean warmup,
+			Painter painter) {
+		long allocatedBefore = allocatedBytes();
+		long start = System.nanoTime();
+		for (int frame = 0; frame < FRAMES; frame++) {
+			Graphics2D g = image.createGraphics();
+			g.setColor(Color.WHITE);
+			g.fillRect(0, 0, SIZE, SIZE);
+			painter.paint(g, scene);
+			g.dispose();
+		}
+		double millis = (System.nanoTime() - start) / 1e6 / FRAMES;
+		long allocated = (allocatedBytes() - allocatedBefore) / FRAMES;
+
+		if (!warmup) {
+			System.out.printf("%-16s %8.1f ms/frame %12.1f KB allocated/frame%n", name, millis, allocated / 1024.0);
+		}
+	}
+
+	/**
+	 * Method creates a random scene with the given number of objects.
+	 *
+	 * @param objects
+	 *            The number of objects in the scene.
+	 * @param colors
+	 *            The number of distinct colors in the scene.
+	 * @return The objects of the scene.
+	 */
+	private static List<GeometricalObject> createScene(int objects, int colors) {
+		Random random = new Random(42);
+		Color[] palette = new Color[Math.min(colors, 1 << 16)];
+		for (int i = 0; i < palette.length; i++) {
+			palette[i] = new Color(random.nextInt(0x1000000));
+		}
+		List<GeometricalObject> scene = new ArrayList<>(objects);
+		for (int i = 0; i < objects; i++) {
+			int x = random.nextInt(SIZE);
+			int y = random.nextInt(SIZE);
+			Color color = (colors > palette.length) ? new Color(random.nextInt(0x1000000)) : palette[random
+					.nextInt(palette.length)];
+			switch (random.nextInt(3)) {
+			case 0:
+				scene.add(new Line(new Point(x, y), new Point(x + random.nextInt(100) - 50, y + random.nextInt(100)
+						- 50), color));
+				break;
+			case 1:
+				scene.add(new Circle(new Point(x, y), random.nextInt(20), color, null));
+				break;
+			default:
+				Color fill = (colors > palette.length) ? new Color(random.nextInt(0x1000000)) : palette[random
+						.nextInt(palette.length)];
+				scene.add(new Circle(new Point(x, y), random.nextInt(20), color, fill));
+				break;
+			}
+		}
+		return scene;
+	}
+
+	/**
+	 * Method obtains the number of bytes allocated by the current thread so
+	 * far, if the JVM supports it.
+	 *
+	 * @return The number of allocated bytes, or 0 if it is not supported.
+	 */
+	private static long allocatedBytes() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return 0;
+	}
+
+	/**
+	 * A way of painting the objects of the scene.
+	 *
+	 * @author Marin
+	 *
+	 */
+	private interface Painter {
+		/**
+		 * Method paints the given objects.
+		 *
+		 * @param g
+		 *            The graphics object of the frame.
+		 * @param objects
+		 *            The objects to paint, in z-order.
+		 */
+		void paint(Graphics2D g, List<GeometricalObject> objects);
+	}
+}
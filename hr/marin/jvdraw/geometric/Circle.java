@@ -1,130 +1,243 @@
-package hr.marin.jvdraw.geometric;
-
-import java.awt.Color;
-import java.awt.Graphics2D;
-import java.awt.Point;
-import java.awt.Rectangle;
-
-/**
- * <p>
- * An implementation of {@link GeometricalObject} that represents a circle
- * shape.<br>
- * A circle consists of a center point, a radius, a outline color and,
- * optionally, a fill color.
- * </p>
- * <p>
- * If the user provides the fill color in the constructor, the circle is
- * regarded as filled. Otherwise, it is regarded as not filled.
- * </p>
- * 
- * @author Marin
- *
- */
-public class Circle extends GeometricalObject {
-	/**
-	 * The center point of the circle
-	 */
-	private Point center;
-	/**
-	 * The radius of the circle
-	 */
-	private int radius;
-
-	/**
-	 * Creates a new circle with the given center point, radius and outline and
-	 * fill colors. The fill color can be null (the circle will not be filled).
-	 * 
-	 * @param center
-	 *            The center point of the circle
-	 * @param radius
-	 *            The radius of the circle
-	 * @param outline
-	 *            The outline color that this circle will be drawn in
-	 * @param fill
-	 *            The fill color that this circle will be drawn in. If null, the
-	 *            circle is regarded as not filled.
-	 * @throws IllegalArgumentException If the given radius is negative
-	 */
-	public Circle(Point center, int radius, Color outline, Color fill) {
-		super(outline, fill);
-		if(radius < 0) {
-			throw new IllegalArgumentException("Radius must be nonnegative.");
-		}
-		this.radius = radius;
-		this.center = center;
-	}
-
-	@Override
-	public Rectangle getBoundingRect() {
-		return new Rectangle(center.x - radius, center.y - radius, 2*radius, 2*radius);
-	}
-
-	/**
-	 * Method checks whether this circle is filled or empty. If a fill color was
-	 * provided through the constructor of this object, the circle will be
-	 * filled. If null was provided instead of a color, the circle will be
-	 * empty.
-	 * 
-	 * @return True if the circle is filled, false otherwise.
-	 */
-	public boolean isFilled() {
-		return (getBackgroundColor() != null);
-	}
-
-	/**
-	 * Gets the center point of the circle.
-	 * @return The center point of the circle.
-	 */
-	public Point getCenter() {
-		return center;
-	}
-
-	/**
-	 * Sets the center point of the circle.
-	 * @param center The new center point of the circle
-	 */
-	public void setCenter(Point center) {
-		this.center = center;
-		fireListeners();
-	}
-	
-	/**
-	 * Gets the radius of the circle.
-	 * @return The radius of the circle.
-	 */
-	public int getRadius() {
-		return radius;
-	}
-
-	/**
-	 * Sets the radius of the circle.
-	 * @param radius The new radius of the circle
-	 * @throws IllegalArgumentException If the given radius is negative
-	 */
-	public void setRadius(int radius) {
-		if(radius < 0) {
-			throw new IllegalArgumentException("Radius must be nonnegative.");
-		}
-		this.radius = radius;
-		fireListeners();
-	}
-	
-	@Override
-	public void paint(Graphics2D g) {
-		Graphics2D temp = (Graphics2D) g.create();
-		if(isFilled()) {
-			temp.setColor(getBackgroundColor());
-			temp.fillOval(center.x - radius, center.y - radius, 2*radius, 2*radius);
-		}
-
-		temp.setColor(getForegroundColor());
-		temp.drawOval(center.x - radius, center.y - radius, 2*radius, 2*radius);
-	
-		temp.dispose();
-	}
-	
-	@Override
-	public String toString() {
-		return "Circle";
-	}
-}
+package hr.marin.jvdraw.geometric;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+
+/**
+ * <p>
+ * An implementation of {@link GeometricalObject} that represents a circle
+ * shape.<br>
+ * A circle consists of a center point, a radius, a outline color and,
+ * optionally, a fill color.
+ * </p>
+ * <p>
+ * If the user provides the fill color in the constructor, the circle is
+ * regarded as filled. Otherwise, it is regarded as not filled.
+ * </p>
+ * <p>
+ * The coordinates of the center are stored as plain integers. The point
+ * returned by {@link #getCenter()} is a new copy, so changing it does not
+ * change the circle. Code that only needs the coordinates should read them
+ * through {@link #getCenterX()} and {@link #getCenterY()}, which do not
+ * allocate.
+ * </p>
+ * 
+ * @author Marin
+ *
+ */
+public class Circle extends GeometricalObject {
+	/**
+	 * The x coordinate of the center of the circle
+	 */
+	private int centerX;
+	/**
+	 * The y coordinate of the center of the circle
+	 */
+	private int centerY;
+	/**
+	 * The radius of the circle
+	 */
+	private int radius;
+
+	/**
+	 * Creates a new circle with the given center point, radius and outline and
+	 * fill colors. The fill color can be null (the circle will not be filled).
+	 * 
+	 * @param center
+	 *            The center point of the circle
+	 * @param radius
+	 *            The radius of the circle
+	 * @param outline
+	 *            The outline color that this circle will be drawn in
+	 * @param fill
+	 *            The fill color that this circle will be drawn in. If null, the
+	 *            circle is regarded as not filled.
+	 * @throws IllegalArgumentException If the given radius is negative
+	 */
+	public Circle(Point center, int radius, Color outline, Color fill) {
+		this(center.x, center.y, radius, outline, fill);
+	}
+
+	/**
+	 * Creates a new circle with the given center coordinates, radius and
+	 * outline and fill colors. The fill color can be null (the circle will not
+	 * be filled).
+	 * 
+	 * @param centerX
+	 *            The x coordinate of the center of the circle
+	 * @param centerY
+	 *            The y coordinate of the center of the circle
+	 * @param radius
+	 *            The radius of the circle
+	 * @param outline
+	 *            The outline color that this circle will be drawn in
+	 * @param fill
+	 *            The fill color that this circle will be drawn in. If null, the
+	 *            circle is regarded as not filled.
+	 * @throws IllegalArgumentException If the given radius is negative
+	 */
+	public Circle(int centerX, int centerY, int radius, Color outline, Color fill) {
+		super(outline, fill);
+		if(radius < 0) {
+			throw new IllegalArgumentException("Radius must be nonnegative.");
+		}
+		this.radius = radius;
+		this.centerX = centerX;
+		this.centerY = centerY;
+	}
+
+	@Override
+	public Rectangle getBoundingRect() {
+		int centerX = getCenterX();
+		int centerY = getCenterY();
+		int radius = getRadius();
+		return new Rectangle(centerX - radius, centerY - radius, 2*radius, 2*radius);
+	}
+
+	/**
+	 * {@inheritDoc} A point lies on a filled circle if it lies inside the
+	 * disk, and on an empty circle if it lies on its outline.
+	 */
+	@Override
+	public boolean contains(double x, double y, double tolerance) {
+		double dx = x - getCenterX();
+		double dy = y - getCenterY();
+		double distance = Math.sqrt(dx * dx + dy * dy);
+		int radius = getRadius();
+		if (isFilled()) {
+			return distance <= radius + tolerance;
+		}
+		return Math.abs(distance - radius) <= tolerance;
+	}
+
+	/**
+	 * {@inheritDoc} A filled circle intersects the area if its disk does. An
+	 * empty circle intersects the area only if its outline does, so it does
+	 * not intersect an area that lies entirely inside of it.
+	 */
+	@Override
+	public boolean intersects(Rectangle area) {
+		int centerX = getCenterX();
+		int centerY = getCenterY();
+		double x0 = area.x;
+		double y0 = area.y;
+		double x1 = (double) area.x + area.width;
+		double y1 = (double) area.y + area.height;
+		double nearX = Math.max(x0, Math.min(x1, centerX)) - centerX;
+		double nearY = Math.max(y0, Math.min(y1, centerY)) - centerY;
+		double radius = getRadius();
+		if (nearX * nearX + nearY * nearY > radius * radius) {
+			return false;
+		}
+		if (isFilled()) {
+			return true;
+		}
+		double farX = Math.max(centerX - x0, x1 - centerX);
+		double farY = Math.max(centerY - y0, y1 - centerY);
+		return farX * farX + farY * farY >= radius * radius;
+	}
+
+	/**
+	 * Method checks whether this circle is filled or empty. If a fill color was
+	 * provided through the constructor of this object, the circle will be
+	 * filled. If null was provided instead of a color, the circle will be
+	 * empty.
+	 * 
+	 * @return True if the circle is filled, false otherwise.
+	 */
+	public boolean isFilled() {
+		return (getBackgroundColor() != null);
+	}
+
+	/**
+	 * Gets the center point of the circle.
+	 * @return The center point of the circle.
+	 */
+	public Point getCenter() {
+		return new Point(getCenterX(), getCenterY());
+	}
+
+	/**
+	 * Gets the x coordinate of the center point of the circle.
+	 * @return The x coordinate of the center point of the circle.
+	 */
+	public int getCenterX() {
+		return centerX;
+	}
+
+	/**
+	 * Gets the y coordinate of the center point of the circle.
+	 * @return The y coordinate of the center point of the circle.
+	 */
+	public int getCenterY() {
+		return centerY;
+	}
+
+	/**
+	 * Sets the center point of the circle.
+	 * @param center The new center point of the circle
+	 */
+	public void setCenter(Point center) {
+		setCenter(center.x, center.y);
+	}
+
+	/**
+	 * Sets the center point of the circle.
+	 * @param x The x coordinate of the new center point of the circle
+	 * @param y The y coordinate of the new center point of the circle
+	 */
+	public void setCenter(int x, int y) {
+		centerX = x;
+		centerY = y;
+		fireListeners();
+	}
+	
+	/**
+	 * Gets the radius of the circle.
+	 * @return The radius of the circle.
+	 */
+	public int getRadius() {
+		return radius;
+	}
+
+	/**
+	 * Sets the radius of the circle.
+	 * @param radius The new radius of the circle
+	 * @throws IllegalArgumentException If the given radius is negative
+	 */
+	public void setRadius(int radius) {
+		if(radius < 0) {
+			throw new IllegalArgumentException("Radius must be nonnegative.");
+		}
+		this.radius = radius;
+		fireListeners();
+	}
+	
+	@Override
+	public GeometricalObject copy() {
+		return new Circle(getCenterX(), getCenterY(), getRadius(), getForegroundColor(), getBackgroundColor());
+	}
+
+	@Override
+	public void paint(Graphics2D g) {
+		int x = getCenterX() - getRadius();
+		int y = getCenterY() - getRadius();
+		int diameter = 2 * getRadius();
+		Color color = g.getColor();
+		if(isFilled()) {
+			g.setColor(getBackgroundColor());
+			g.fillOval(x, y, diameter, diameter);
+		}
+
+		g.setColor(getForegroundColor());
+		g.drawOval(x, y, diameter, diameter);
+		g.setColor(color);
+	}
+	
+	@Override
+	public String toString() {
+		return "Circle";
+	}
+}
@@ -0,0 +1,119 @@
+package hr.marin.jvdraw.geometric;
+
+import java.awt.Color;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <p>
+ * A shared cache of {@link Color} instances. Drawings typically use only a
+ * handful of distinct colors, so instead of creating a new {@link Color} for
+ * every object, the readers, the editors and the color pickers all obtain
+ * their colors from this palette, and objects with the same color share a
+ * single instance.
+ * </p>
+ * <p>
+ * The palette is a fixed-size table indexed by a hash of the ARGB value, in
+ * which a color evicts any other color with the same hash. It never grows, and
+ * can be used from several threads at once without locking. A color obtained
+ * from the palette is always equal to the requested one, but it is not
+ * guaranteed to be the same instance as an earlier result if many distinct
+ * colors are in use.
+ * </p>
+ *
+ * @author Marin
+ *
+ */
+public final class ColorPalette {
+	/**
+	 * The base two logarithm of the number of entries of the table.
+	 */
+	private static final int BITS = 12;
+
+	/**
+	 * The cached colors, indexed by the hash of their ARGB value.
+	 */
+	private static final AtomicReferenceArray<Color> TABLE = new AtomicReferenceArray<>(1 << BITS);
+
+	/**
+	 * This class has only static methods, so it cannot be instantiated.
+	 */
+	private ColorPalette() {
+	}
+
+	/**
+	 * Method obtains the opaque color with the given components.
+	 *
+	 * @param red
+	 *            The red component, from 0 to 255.
+	 * @param green
+	 *            The green component, from 0 to 255.
+	 * @param blue
+	 *            The blue component, from 0 to 255.
+	 * @return The color with the given components.
+	 * @throws IllegalArgumentException
+	 *             If a component is outside of the range.
+	 */
+	public static Color get(int red, int green, int blue) {
+		if (((red | green | blue) & ~0xFF) != 0) {
+			throw new IllegalArgumentException("Color components must be between 0 and 255: " + red + ", " + green
+					+ ", " + blue + ".");
+		}
+		return get(0xFF000000 | (red << 16) | (green << 8) | blue);
+	}
+
+	/**
+	 * Method obtains the color with the given ARGB value.
+	 *
+	 * @param argb
+	 *            The alpha, red, green and blue components, packed the same
+	 *            way as by {@link Color#getRGB()}.
+	 * @return The color with the given value.
+	 */
+	public static Color get(int argb) {
+		int slot = slot(argb);
+		Color color = TABLE.get(slot);
+		if (color == null || color.getRGB() != argb) {
+			color = new Color(argb, true);
+			TABLE.set(slot, color);
+		}
+		return color;
+	}
+
+	/**
+	 * Method obtains the shared instance of the given color. Colors that are
+	 * not plain {@link Color}s, such as UI resources, are replaced by a plain
+	 * color with the same value.
+	 *
+	 * @param color
+	 *            The color, or null.
+	 * @return The shared color equal to the given one, or null if null was
+	 *         given.
+	 */
+	public static Color intern(Color color) {
+		if (color == null) {
+			return null;
+		}
+		int argb = color.getRGB();
+		int slot = slot(argb);
+		Color cached = TABLE.get(slot);
+		if (cached != null && cached.getRGB() == argb) {
+			return cached;
+		}
+		if (color.getClass() != Color.class) {
+			color = new Color(argb, true);
+		}
+		TABLE.set(slot, color);
+		return color;
+	}
+
+	/**
+	 * Method computes the table slot of the given ARGB value.
+	 *
+	 * @param argb
+	 *            The ARGB value.
+	 * @return The slot of the value.
+	 */
+	private static int slot(int argb) {
+		return (argb * 0x9E3779B9) >>> (32 - BITS);
+	}
+}
@@ -1,107 +1,263 @@
-package hr.marin.jvdraw.geometric;
-
-import java.awt.Color;
-import java.awt.Graphics2D;
-import java.awt.Point;
-import java.awt.Rectangle;
-
-/**
- * <p>
- * An implementation of {@link GeometricalObject} that represents a line shape.<br>
- * A line consists of a starting and an ending point and a foreground color.
- * </p>
- * 
- * @author Marin
- *
- */
-public class Line extends GeometricalObject {
-	/**
-	 * The starting point of the line
-	 */
-	private Point start;
-	/**
-	 * The ending point of the line
-	 */
-	private Point end;
-
-	/**
-	 * Creates a new {@link Line} object with the given start and end points and
-	 * the given color.
-	 * 
-	 * @param start
-	 *            The starting point of the line
-	 * @param end
-	 *            The ending point of the line
-	 * @param color
-	 *            The color that this line will be drawn in.
-	 */
-	public Line(Point start, Point end, Color color) {
-		super(color, null);
-		this.start = start;
-		this.end = end;
-	}
-
-	@Override
-	public Rectangle getBoundingRect() {
-		int x = Math.min(start.x, end.x);
-		int y = Math.min(start.y, end.y);
-		int w = Math.max(start.x, end.x) - x;
-		int h = Math.max(start.y, end.y) - y;
-
-		return new Rectangle(x, y, w, h);
-	}
-
-	/**
-	 * Gets the starting point of the line.
-	 * 
-	 * @return The starting point of the line
-	 */
-	public Point getStart() {
-		return start;
-	}
-
-	/**
-	 * Sets the starting point of the line.
-	 * 
-	 * @param start
-	 *            The starting point.
-	 */
-	public void setStart(Point start) {
-		this.start = start;
-		fireListeners();
-	}
-
-	/**
-	 * Gets the ending point of the line.
-	 * 
-	 * @return The ending point of the line
-	 */
-	public Point getEnd() {
-		return end;
-	}
-
-	/**
-	 * Sets the ending point of the line.
-	 * 
-	 * @param end
-	 *            The ending point.
-	 */
-	public void setEnd(Point end) {
-		this.end = end;
-		fireListeners();
-	}
-
-	@Override
-	public void paint(Graphics2D g) {
-		Graphics2D temp = (Graphics2D) g.create();
-		temp.setColor(getForegroundColor());
-		temp.drawLine(start.x, start.y, end.x, end.y);
-		temp.dispose();
-	}
-	
-
-	@Override
-	public String toString() {
-		return "Line";
-	}
-}
+package hr.marin.jvdraw.geometric;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.geom.Line2D;
+
+/**
+ * <p>
+ * An implementation of {@link GeometricalObject} that represents a line shape.<br>
+ * A line consists of a starting and an ending point and a foreground color.
+ * </p>
+ * <p>
+ * The coordinates are stored as plain integers. The points returned by the
+ * getters are new copies, so changing them does not change the line. Code
+ * that only needs the coordinates should read them through the coordinate
+ * getters, which do not allocate.
+ * </p>
+ * 
+ * @author Marin
+ *
+ */
+public class Line extends GeometricalObject {
+	/**
+	 * The x coordinate of the starting point of the line
+	 */
+	private int startX;
+	/**
+	 * The y coordinate of the starting point of the line
+	 */
+	private int startY;
+	/**
+	 * The x coordinate of the ending point of the line
+	 */
+	private int endX;
+	/**
+	 * The y coordinate of the ending point of the line
+	 */
+	private int endY;
+
+	/**
+	 * Creates a new {@link Line} object with the given start and end points and
+	 * the given color.
+	 * 
+	 * @param start
+	 *            The starting point of the line
+	 * @param end
+	 *            The ending point of the line
+	 * @param color
+	 *            The color that this line will be drawn in.
+	 */
+	public Line(Point start, Point end, Color color) {
+		this(start.x, start.y, end.x, end.y, color);
+	}
+
+	/**
+	 * Creates a new {@link Line} object with the given start and end
+	 * coordinates and the given color.
+	 * 
+	 * @param startX
+	 *            The x coordinate of the starting point of the line
+	 * @param startY
+	 *            The y coordinate of the starting point of the line
+	 * @param endX
+	 *            The x coordinate of the ending point of the line
+	 * @param endY
+	 *            The y coordinate of the ending point of the line
+	 * @param color
+	 *            The color that this line will be drawn in.
+	 */
+	public Line(int startX, int startY, int endX, int endY, Color color) {
+		super(color, null);
+		this.startX = startX;
+		this.startY = startY;
+		this.endX = endX;
+		this.endY = endY;
+	}
+
+	@Override
+	public Rectangle getBoundingRect() {
+		int startX = getStartX();
+		int startY = getStartY();
+		int endX = getEndX();
+		int endY = getEndY();
+		int x = Math.min(startX, endX);
+		int y = Math.min(startY, endY);
+		int w = Math.max(startX, endX) - x;
+		int h = Math.max(startY, endY) - y;
+
+		return new Rectangle(x, y, w, h);
+	}
+
+	/**
+	 * {@inheritDoc} The distance of a point from a line is its distance from
+	 * the closest point of the segment between the start and the end.
+	 */
+	@Override
+	public boolean contains(double x, double y, double tolerance) {
+		int startX = getStartX();
+		int startY = getStartY();
+		double dx = (double) getEndX() - startX;
+		double dy = (double) getEndY() - startY;
+		double px = x - startX;
+		double py = y - startY;
+
+		double lengthSquared = dx * dx + dy * dy;
+		double t = (lengthSquared == 0) ? 0 : Math.max(0, Math.min(1, (px * dx + py * dy) / lengthSquared));
+		double ex = px - t * dx;
+		double ey = py - t * dy;
+		return ex * ex + ey * ey <= tolerance * tolerance;
+	}
+
+	/**
+	 * {@inheritDoc} A line intersects the area if one of its ends lies in it,
+	 * or if it crosses one of the edges of the area.
+	 */
+	@Override
+	public boolean intersects(Rectangle area) {
+		int startX = getStartX();
+		int startY = getStartY();
+		int endX = getEndX();
+		int endY = getEndY();
+		double x0 = area.x;
+		double y0 = area.y;
+		double x1 = (double) area.x + area.width;
+		double y1 = (double) area.y + area.height;
+		if (startX >= x0 && startX <= x1 && startY >= y0 && startY <= y1) {
+			return true;
+		}
+		if (endX >= x0 && endX <= x1 && endY >= y0 && endY <= y1) {
+			return true;
+		}
+		if (startX == endX && startY == endY) {
+			return false;
+		}
+		return Line2D.linesIntersect(startX, startY, endX, endY, x0, y0, x1, y0)
+				|| Line2D.linesIntersect(startX, startY, endX, endY, x1, y0, x1, y1)
+				|| Line2D.linesIntersect(startX, startY, endX, endY, x1, y1, x0, y1)
+				|| Line2D.linesIntersect(startX, startY, endX, endY, x0, y1, x0, y0);
+	}
+
+	/**
+	 * Gets the starting point of the line.
+	 * 
+	 * @return The starting point of the line
+	 */
+	public Point getStart() {
+		return new Point(getStartX(), getStartY());
+	}
+
+	/**
+	 * Gets the x coordinate of the starting point of the line.
+	 * 
+	 * @return The x coordinate of the starting point
+	 */
+	public int getStartX() {
+		return startX;
+	}
+
+	/**
+	 * Gets the y coordinate of the starting point of the line.
+	 * 
+	 * @return The y coordinate of the starting point
+	 */
+	public int getStartY() {
+		return startY;
+	}
+
+	/**
+	 * Sets the starting point of the line.
+	 * 
+	 * @param start
+	 *            The starting point.
+	 */
+	public void setStart(Point start) {
+		setStart(start.x, start.y);
+	}
+
+	/**
+	 * Sets the starting point of the line.
+	 * 
+	 * @param x
+	 *            The x coordinate of the starting point.
+	 * @param y
+	 *            The y coordinate of the starting point.
+	 */
+	public void setStart(int x, int y) {
+		startX = x;
+		startY = y;
+		fireListeners();
+	}
+
+	/**
+	 * Gets the ending point of the line.
+	 * 
+	 * @return The ending point of the line
+	 */
+	public Point getEnd() {
+		return new Point(getEndX(), getEndY());
+	}
+
+	/**
+	 * Gets the x coordinate of the ending point of the line.
+	 * 
+	 * @return The x coordinate of the ending point
+	 */
+	public int getEndX() {
+		return endX;
+	}
+
+	/**
+	 * Gets the y coordinate of the ending point of the line.
+	 * 
+	 * @return The y coordinate of the ending point
+	 */
+	public int getEndY() {
+		return endY;
+	}
+
+	/**
+	 * Sets the ending point of the line.
+	 * 
+	 * @param end
+	 *            The ending point.
+	 */
+	public void setEnd(Point end) {
+		setEnd(end.x, end.y);
+	}
+
+	/**
+	 * Sets the ending point of the line.
+	 * 
+	 * @param x
+	 *            The x coordinate of the ending point.
+	 * @param y
+	 *            The y coordinate of the ending point.
+	 */
+	public void setEnd(int x, int y) {
+		endX = x;
+		endY = y;
+		fireListeners();
+	}
+
+	@Override
+	public GeometricalObject copy() {
+		return new Line(getStartX(), getStartY(), getEndX(), getEndY(), getForegroundColor());
+	}
+
+	@Override
+	public void paint(Graphics2D g) {
+		Color color = g.getColor();
+		g.setColor(getForegroundColor());
+		g.drawLine(getStartX(), getStartY(), getEndX(), getEndY());
+		g.setColor(color);
+	}
+	
+
+	@Override
+	public String toString() {
+		return "Line";
+	}
+}
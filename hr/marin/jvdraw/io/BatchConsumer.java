@@ -0,0 +1,28 @@
+package hr.marin.jvdraw.io;
+
+import hr.marin.jvdraw.geometric.GeometricalObject;
+
+import java.util.List;
+
+/**
+ * <p>
+ * An interface that specifies the methods that a class must implement in order
+ * to receive the objects of a document that is being read in batches.
+ * </p>
+ * 
+ * @author Marin
+ *
+ */
+public interface BatchConsumer {
+	/**
+	 * Method receives the next batch of objects read from the document. The
+	 * batches are received in document order. Throwing a runtime exception
+	 * stops the reading.
+	 * 
+	 * @param batch
+	 *            The next batch of objects.
+	 * @param bytesRead
+	 *            The number of bytes of the document read so far.
+	 */
+	public void accept(List<GeometricalObject> batch, long bytesRead);
+}
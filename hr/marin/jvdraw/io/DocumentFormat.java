@@ -0,0 +1,178 @@
+package hr.marin.jvdraw.io;
+
+import hr.marin.jvdraw.geometric.GeometricalObject;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * An enumeration of all the document formats that drawings can be stored in.
+ * </p>
+ * <p>
+ * When saving, the format is chosen by the file extension. When opening, it is
+ * detected from the contents of the file.
+ * </p>
+ * 
+ * @author Marin
+ *
+ */
+public enum DocumentFormat {
+	/**
+	 * The textual .jvd format, one object per line
+	 */
+	TEXT("jvd", "Jvd files"),
+	/**
+	 * The compact binary .jvdb format
+	 */
+	BINARY("jvdb", "Binary jvd files");
+
+	/**
+	 * The number of objects per batch when reading a binary document.
+	 */
+	private static final int BATCH_SIZE = 1 << 14;
+
+	/**
+	 * The file extension of the format, without the dot.
+	 */
+	private final String extension;
+	/**
+	 * The description of the format shown in file choosers.
+	 */
+	private final String description;
+
+	/**
+	 * Creates the enumeration member with the given extension and description.
+	 * 
+	 * @param extension
+	 *            The file extension of the format, without the dot.
+	 * @param description
+	 *            The description of the format shown in file choosers.
+	 */
+	private DocumentFormat(String extension, String description) {
+		this.extension = extension;
+		this.description = description;
+	}
+
+	/**
+	 * Method obtains the file extension of this format, without the dot.
+	 * 
+	 * @return The file extension of this format.
+	 */
+	public String getExtension() {
+		return extension;
+	}
+
+	/**
+	 * Method obtains the description of this format shown in file choosers.
+	 * 
+	 * @return The description of this format.
+	 */
+	public String getDescription() {
+		return description;
+	}
+
+	/**
+	 * Method creates a writer that encodes objects in this format.
+	 * 
+	 * @param channel
+	 *            The channel the document is written to.
+	 * @return The created writer.
+	 */
+	public DrawingWriter newWriter(WritableByteChannel channel) {
+		return (this == BINARY) ? new JvdbWriter(channel) : new JvdWriter(channel);
+	}
+
+	/**
+	 * Method reads all the geometric objects stored in the given file, which
+	 * must be in this format.
+	 * 
+	 * @param path
+	 *            The file to read.
+	 * @return The read geometric objects, in file order.
+	 * @throws IOException
+	 *             If the file could not be read.
+	 */
+	public List<GeometricalObject> read(Path path) throws IOException {
+		List<GeometricalObject> objects = new ArrayList<>();
+		read(path, (batch, bytesRead) -> objects.addAll(batch));
+		return objects;
+	}
+
+	/**
+	 * Method reads all the geometric objects stored in the given file, which
+	 * must be in this format, and passes them to the given consumer in
+	 * batches, in file order.
+	 * 
+	 * @param path
+	 *            The file to read.
+	 * @param sink
+	 *            The consumer that receives the batches.
+	 * @throws IOException
+	 *             If the file could not be read.
+	 */
+	public void read(Path path, BatchConsumer sink) throws IOException {
+		if (this == TEXT) {
+			new ParallelJvdLoader().load(path, sink);
+			return;
+		}
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			new JvdbReader().read(channel, BATCH_SIZE, sink);
+		}
+	}
+
+	/**
+	 * Method obtains the format whose extension the given file has. If the
+	 * extension is not known, the textual format is returned.
+	 * 
+	 * @param path
+	 *            The file whose format is to be obtained.
+	 * @return The format of the file.
+	 */
+	public static DocumentFormat forPath(Path path) {
+		String name = path.getFileName().toString();
+		int index = name.lastIndexOf('.');
+		String ext = (index == -1) ? "" : name.substring(index + 1);
+		for (DocumentFormat f : values()) {
+			if (f.extension.equalsIgnoreCase(ext)) {
+				return f;
+			}
+		}
+
+		return TEXT;
+	}
+
+	/**
+	 * Method detects the format of the given file from its contents.
+	 * 
+	 * @param path
+	 *            The file whose format is to be detected.
+	 * @return The detected format.
+	 * @throws IOException
+	 *             If the file could not be read.
+	 */
+	public static DocumentFormat detect(Path path) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(JvdbFormat.MAGIC.length);
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			while (header.hasRemaining() && channel.read(header) != -1) {
+			}
+		}
+
+		if (header.hasRemaining()) {
+			return TEXT;
+		}
+		for (int i = 0; i < JvdbFormat.MAGIC.length; i++) {
+			if (header.get(i) != JvdbFormat.MAGIC[i]) {
+				return TEXT;
+			}
+		}
+		return BINARY;
+	}
+}
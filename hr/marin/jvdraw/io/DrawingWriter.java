@@ -0,0 +1,38 @@
+package hr.marin.jvdraw.io;
+
+import hr.marin.jvdraw.geometric.GeometricalObject;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * <p>
+ * An interface that specifies the methods that a class must implement in order
+ * to be a drawing writer. A drawing writer encodes {@link GeometricalObject}s
+ * one by one into a document of some format.
+ * </p>
+ * 
+ * @author Marin
+ *
+ */
+public interface DrawingWriter extends Closeable {
+	/**
+	 * Method encodes the given geometric object and appends it to the document.
+	 * 
+	 * @param object
+	 *            The object to write.
+	 * @throws IOException
+	 *             If the document could not be written to.
+	 * @throws IllegalArgumentException
+	 *             If the object cannot be represented in this format.
+	 */
+	public void write(GeometricalObject object) throws IOException;
+
+	/**
+	 * Method writes all the buffered data to the document.
+	 * 
+	 * @throws IOException
+	 *             If the document could not be written to.
+	 */
+	public void flush() throws IOException;
+}
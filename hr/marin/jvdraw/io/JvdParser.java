@@ -0,0 +1,401 @@
+package hr.marin.jvdraw.io;
+
+import hr.marin.jvdraw.geometric.Circle;
+import hr.marin.jvdraw.geometric.ColorPalette;
+import hr.marin.jvdraw.geometric.GeometricalObject;
+import hr.marin.jvdraw.geometric.Line;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * A streaming parser for the textual .jvd document format. Every line of a
+ * .jvd document describes a single {@link GeometricalObject}:
+ * </p>
+ *
+ * <pre>
+ * LINE x0 y0 x1 y1 red green blue
+ * CIRCLE centerX centerY radius red green blue
+ * FCIRCLE centerX centerY radius red green blue fillRed fillGreen fillBlue
+ * </pre>
+ * <p>
+ * The parser reads the document through a fixed-size byte buffer and
+ * tokenizes the integers straight from the bytes, so no strings or regular
+ * expressions are created along the way and the whole document never has to
+ * be held in memory. Lines that cannot be parsed are skipped.
+ * </p>
+ * <p>
+ * A parser keeps no state between calls, but it is not meant to be shared
+ * between threads.
+ * </p>
+ * <p>
+ * The parsed objects and their colors are created by
+ * {@link #createLine(int, int, int, int, Color)},
+ * {@link #createCircle(int, int, int, Color, Color)} and
+ * {@link #createColor(int, int, int)}, which subclasses may override to build
+ * other objects from the same document.
+ * </p>
+ *
+ * @author Marin
+ *
+ */
+public class JvdParser {
+	/**
+	 * The initial size of the read buffer. The buffer grows only if a single
+	 * line does not fit into it.
+	 */
+	private static final int BUFFER_SIZE = 1 << 16;
+	/**
+	 * The keyword of a line.
+	 */
+	private static final byte[] LINE = { 'L', 'I', 'N', 'E' };
+	/**
+	 * The keyword of an empty circle.
+	 */
+	private static final byte[] CIRCLE = { 'C', 'I', 'R', 'C', 'L', 'E' };
+	/**
+	 * The keyword of a filled circle.
+	 */
+	private static final byte[] FCIRCLE = { 'F', 'C', 'I', 'R', 'C', 'L', 'E' };
+
+	/**
+	 * The integer arguments of the line that is currently being parsed.
+	 */
+	private final int[] args = new int[9];
+	/**
+	 * The position in the buffer right after the last parsed integer.
+	 */
+	private int cursor;
+
+	/**
+	 * Method reads the whole channel and passes every successfully parsed
+	 * {@link GeometricalObject} to the given consumer, in document order.
+	 *
+	 * @param channel
+	 *            The channel that the document is read from.
+	 * @param sink
+	 *            The consumer that receives the parsed objects.
+	 * @throws IOException
+	 *             If the channel could not be read.
+	 */
+	public void parse(ReadableByteChannel channel, Consumer<? super GeometricalObject> sink) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+		while (true) {
+			boolean endOfInput = channel.read(buffer) == -1;
+			int end = buffer.position();
+			int consumed = parseLines(buffer, 0, end, endOfInput, sink);
+			if (endOfInput) {
+				return;
+			}
+
+			if (consumed == 0 && end == buffer.capacity()) {
+				ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+				buffer.flip();
+				larger.put(buffer);
+				buffer = larger;
+			} else {
+				buffer.limit(end);
+				buffer.position(consumed);
+				buffer.compact();
+			}
+		}
+	}
+
+	/**
+	 * Method parses every complete line in the given region of the buffer and
+	 * passes the successfully parsed objects to the given consumer. The
+	 * buffer's position and limit are not used or changed.
+	 *
+	 * @param buffer
+	 *            The buffer holding the document bytes.
+	 * @param from
+	 *            The offset of the first byte of the region.
+	 * @param to
+	 *            The offset right after the last byte of the region.
+	 * @param endOfInput
+	 *            True if the region ends the document, in which case a last
+	 *            line without a line terminator is parsed as well.
+	 * @param sink
+	 *            The consumer that receives the parsed objects.
+	 * @return The offset right after the last parsed line.
+	 */
+	public int parseLines(ByteBuffer buffer, int from, int to, boolean endOfInput,
+			Consumer<? super GeometricalObject> sink) {
+		int start = from;
+		for (int i = from; i < to; i++) {
+			if (buffer.get(i) == '\n') {
+				GeometricalObject object = parseLine(buffer, start, i);
+				if (object != null) {
+					sink.accept(object);
+				}
+				start = i + 1;
+			}
+		}
+
+		if (endOfInput && start < to) {
+			GeometricalObject object = parseLine(buffer, start, to);
+			if (object != null) {
+				sink.accept(object);
+			}
+			start = to;
+		}
+		return start;
+	}
+
+	/**
+	 * Method parses a single line of the document.
+	 *
+	 * @param buffer
+	 *            The buffer holding the document bytes.
+	 * @param from
+	 *            The offset of the first byte of the line.
+	 * @param to
+	 *            The offset right after the last byte of the line, not
+	 *            counting the line terminator.
+	 * @return The parsed object, or null if the line does not describe a
+	 *         valid object.
+	 */
+	public GeometricalObject parseLine(ByteBuffer buffer, int from, int to) {
+		int i = skipWhitespace(buffer, from, to);
+
+		if (startsWith(buffer, i, to, LINE)) {
+			if (!parseArguments(buffer, i + LINE.length, to, 7) || !isColor(4)) {
+				return null;
+			}
+			return createLine(args[0], args[1], args[2], args[3], toColor(4));
+		} else if (startsWith(buffer, i, to, CIRCLE)) {
+			if (!parseArguments(buffer, i + CIRCLE.length, to, 6) || args[2] < 0 || !isColor(3)) {
+				return null;
+			}
+			return createCircle(args[0], args[1], args[2], toColor(3), null);
+		} else if (startsWith(buffer, i, to, FCIRCLE)) {
+			if (!parseArguments(buffer, i + FCIRCLE.length, to, 9) || args[2] < 0 || !isColor(3)
+					|| !isColor(6)) {
+				return null;
+			}
+			return createCircle(args[0], args[1], args[2], toColor(3), toColor(6));
+		}
+
+		return null;
+	}
+
+	/**
+	 * Method parses the given number of whitespace separated integers into
+	 * {@link #args}. Anything after the last needed integer is ignored.
+	 *
+	 * @param buffer
+	 *            The buffer holding the document bytes.
+	 * @param from
+	 *            The offset where the arguments start.
+	 * @param to
+	 *            The offset where the line ends.
+	 * @param count
+	 *            The number of integers to parse.
+	 * @return True if all the integers were parsed, false otherwise.
+	 */
+	private boolean parseArguments(ByteBuffer buffer, int from, int to, int count) {
+		cursor = from;
+		for (int n = 0; n < count; n++) {
+			if (!parseInt(buffer, skipWhitespace(buffer, cursor, to), to, n)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Method parses a single decimal integer, optionally preceded by a sign,
+	 * into the given slot of {@link #args} and moves {@link #cursor} right
+	 * after it.
+	 *
+	 * @param buffer
+	 *            The buffer holding the document bytes.
+	 * @param from
+	 *            The offset where the integer starts.
+	 * @param to
+	 *            The offset where the line ends.
+	 * @param slot
+	 *            The index in {@link #args} that receives the integer.
+	 * @return True if the integer was parsed, false if there is no valid
+	 *         integer at the given offset.
+	 */
+	private boolean parseInt(ByteBuffer buffer, int from, int to, int slot) {
+		int i = from;
+		boolean negative = false;
+		if (i < to && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+			negative = buffer.get(i) == '-';
+			i++;
+		}
+
+		int digitsStart = i;
+		long value = 0;
+		while (i < to) {
+			int digit = buffer.get(i) - '0';
+			if (digit < 0 || digit > 9) {
+				break;
+			}
+			value = value * 10 + digit;
+			if (value > (long) Integer.MAX_VALUE + 1) {
+				return false;
+			}
+			i++;
+		}
+
+		if (i == digitsStart || (i < to && !isWhitespace(buffer.get(i)))) {
+			return false;
+		}
+		value = negative ? -value : value;
+		if (value > Integer.MAX_VALUE) {
+			return false;
+		}
+
+		args[slot] = (int) value;
+		cursor = i;
+		return true;
+	}
+
+	/**
+	 * Method checks whether the three arguments starting at the given slot are
+	 * valid color components.
+	 *
+	 * @param slot
+	 *            The slot of the red component.
+	 * @return True if all three components are between 0 and 255.
+	 */
+	private boolean isColor(int slot) {
+		for (int i = slot; i < slot + 3; i++) {
+			if (args[i] < 0 || args[i] > 255) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Method obtains the color whose components start at the given slot.
+	 *
+	 * @param slot
+	 *            The slot of the red component.
+	 * @return The color.
+	 */
+	private Color toColor(int slot) {
+		return createColor(args[slot], args[slot + 1], args[slot + 2]);
+	}
+
+	/**
+	 * Method creates a parsed line.
+	 *
+	 * @param startX
+	 *            The x coordinate of the starting point.
+	 * @param startY
+	 *            The y coordinate of the starting point.
+	 * @param endX
+	 *            The x coordinate of the ending point.
+	 * @param endY
+	 *            The y coordinate of the ending point.
+	 * @param color
+	 *            The color of the line.
+	 * @return The line.
+	 */
+	protected GeometricalObject createLine(int startX, int startY, int endX, int endY, Color color) {
+		return new Line(startX, startY, endX, endY, color);
+	}
+
+	/**
+	 * Method creates a parsed circle.
+	 *
+	 * @param centerX
+	 *            The x coordinate of the center.
+	 * @param centerY
+	 *            The y coordinate of the center.
+	 * @param radius
+	 *            The radius, which is never negative.
+	 * @param outline
+	 *            The outline color.
+	 * @param fill
+	 *            The fill color, or null if the circle is empty.
+	 * @return The circle.
+	 */
+	protected GeometricalObject createCircle(int centerX, int centerY, int radius, Color outline, Color fill) {
+		return new Circle(centerX, centerY, radius, outline, fill);
+	}
+
+	/**
+	 * Method obtains a parsed color from the {@link ColorPalette}, so equal
+	 * colors share a single instance.
+	 *
+	 * @param red
+	 *            The red component, between 0 and 255.
+	 * @param green
+	 *            The green component, between 0 and 255.
+	 * @param blue
+	 *            The blue component, between 0 and 255.
+	 * @return The color.
+	 */
+	protected Color createColor(int red, int green, int blue) {
+		return ColorPalette.get(red, green, blue);
+	}
+
+	/**
+	 * Method skips the whitespace (spaces, tabs and carriage returns) starting
+	 * at the given offset.
+	 *
+	 * @param buffer
+	 *            The buffer holding the document bytes.
+	 * @param from
+	 *            The offset to start from.
+	 * @param to
+	 *            The offset where the line ends.
+	 * @return The offset of the first non-whitespace byte, or the end of the
+	 *         line.
+	 */
+	private static int skipWhitespace(ByteBuffer buffer, int from, int to) {
+		int i = from;
+		while (i < to && isWhitespace(buffer.get(i))) {
+			i++;
+		}
+		return i;
+	}
+
+	/**
+	 * Method checks whether the given byte is whitespace within a line.
+	 *
+	 * @param b
+	 *            The byte to check.
+	 * @return True if the byte is a space, a tab or a carriage return.
+	 */
+	private static boolean isWhitespace(byte b) {
+		return b == ' ' || b == '\t' || b == '\r';
+	}
+
+	/**
+	 * Method checks whether the line continues with the given keyword at the
+	 * given offset.
+	 *
+	 * @param buffer
+	 *            The buffer holding the document bytes.
+	 * @param from
+	 *            The offset to check at.
+	 * @param to
+	 *            The offset where the line ends.
+	 * @param keyword
+	 *            The keyword to look for.
+	 * @return True if the keyword is found at the given offset.
+	 */
+	private static boolean startsWith(ByteBuffer buffer, int from, int to, byte[] keyword) {
+		if (to - from < keyword.length) {
+			return false;
+		}
+		for (int i = 0; i < keyword.length; i++) {
+			if (buffer.get(from + i) != keyword[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
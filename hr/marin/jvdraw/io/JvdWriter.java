@@ -0,0 +1,174 @@
+package hr.marin.jvdraw.io;
+
+import hr.marin.jvdraw.geometric.Circle;
+import hr.marin.jvdraw.geometric.GeometricalObject;
+import hr.marin.jvdraw.geometric.Line;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * <p>
+ * A streaming writer for the textual .jvd document format, described in
+ * {@link JvdParser}.
+ * </p>
+ * <p>
+ * The writer encodes the objects straight into a reusable byte buffer, which
+ * is written to the underlying channel every time it fills up. Integers are
+ * formatted without creating intermediate strings, so the memory used by the
+ * writer does not depend on the size of the document.
+ * </p>
+ *
+ * @author Marin
+ *
+ */
+public class JvdWriter implements DrawingWriter {
+	/**
+	 * The size of the write buffer.
+	 */
+	private static final int BUFFER_SIZE = 1 << 16;
+	/**
+	 * An upper bound on the encoded size of a single object.
+	 */
+	private static final int MAX_RECORD_SIZE = 128;
+	/**
+	 * The keyword of a line, including the separator.
+	 */
+	private static final byte[] LINE = { 'L', 'I', 'N', 'E', ' ' };
+	/**
+	 * The keyword of an empty circle, including the separator.
+	 */
+	private static final byte[] CIRCLE = { 'C', 'I', 'R', 'C', 'L', 'E', ' ' };
+	/**
+	 * The keyword of a filled circle, including the separator.
+	 */
+	private static final byte[] FCIRCLE = { 'F', 'C', 'I', 'R', 'C', 'L', 'E', ' ' };
+
+	/**
+	 * The channel the document is written to.
+	 */
+	private WritableByteChannel channel;
+	/**
+	 * The buffer holding the encoded objects that have not been written yet.
+	 */
+	private ByteBuffer buffer;
+	/**
+	 * The scratch space used to format a single integer.
+	 */
+	private byte[] digits;
+
+	/**
+	 * Creates a new {@link JvdWriter} that writes to the given channel.
+	 *
+	 * @param channel
+	 *            The channel the document is written to.
+	 */
+	public JvdWriter(WritableByteChannel channel) {
+		this.channel = channel;
+		buffer = ByteBuffer.allocate(BUFFER_SIZE);
+		digits = new byte[11];
+	}
+
+	/**
+	 * Method encodes the given geometric object as a single line of the
+	 * document.
+	 */
+	@Override
+	public void write(GeometricalObject object) throws IOException {
+		if (buffer.remaining() < MAX_RECORD_SIZE) {
+			flush();
+		}
+
+		if (object instanceof Line) {
+			Line line = (Line) object;
+			int startX = line.getStartX();
+			int startY = line.getStartY();
+			int endX = line.getEndX();
+			int endY = line.getEndY();
+			buffer.put(LINE);
+			putInt(startX, ' ');
+			putInt(startY, ' ');
+			putInt(endX, ' ');
+			putInt(endY, ' ');
+			putColor(line.getForegroundColor(), '\n');
+		} else if (object instanceof Circle) {
+			Circle circle = (Circle) object;
+			int centerX = circle.getCenterX();
+			int centerY = circle.getCenterY();
+			Color fill = circle.getBackgroundColor();
+			buffer.put(fill == null ? CIRCLE : FCIRCLE);
+			putInt(centerX, ' ');
+			putInt(centerY, ' ');
+			putInt(circle.getRadius(), ' ');
+			if (fill == null) {
+				putColor(circle.getForegroundColor(), '\n');
+			} else {
+				putColor(circle.getForegroundColor(), ' ');
+				putColor(fill, '\n');
+			}
+		} else {
+			throw new IllegalArgumentException("Unsupported geometric object: " + object);
+		}
+	}
+
+	@Override
+	public void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	/**
+	 * Method flushes the buffered bytes and closes the channel.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			flush();
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Method encodes the components of the given color, separated by spaces.
+	 *
+	 * @param color
+	 *            The color to encode.
+	 * @param separator
+	 *            The character written after the last component.
+	 */
+	private void putColor(Color color, char separator) {
+		putInt(color.getRed(), ' ');
+		putInt(color.getGreen(), ' ');
+		putInt(color.getBlue(), separator);
+	}
+
+	/**
+	 * Method encodes the given integer in decimal.
+	 *
+	 * @param value
+	 *            The integer to encode.
+	 * @param separator
+	 *            The character written after the integer.
+	 */
+	private void putInt(int value, char separator) {
+		long v = value;
+		if (v < 0) {
+			buffer.put((byte) '-');
+			v = -v;
+		}
+
+		int i = digits.length;
+		do {
+			digits[--i] = (byte) ('0' + v % 10);
+			v /= 10;
+		} while (v != 0);
+		buffer.put(digits, i, digits.length - i);
+		buffer.put((byte) separator);
+	}
+}
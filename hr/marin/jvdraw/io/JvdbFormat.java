@@ -0,0 +1,65 @@
+package hr.marin.jvdraw.io;
+
+/**
+ * <p>
+ * The constants of the binary .jvdb document format.
+ * </p>
+ * <p>
+ * A .jvdb document starts with a header consisting of the four magic bytes
+ * <code>JVDB</code> and a single version byte. The header is followed by the
+ * objects of the drawing, until the end of the document. Every object starts
+ * with a tag byte that specifies its type:
+ * </p>
+ * <ul>
+ * <li>{@link #TAG_LINE}: start x, start y, end x - start x, end y - start y,
+ * outline color</li>
+ * <li>{@link #TAG_CIRCLE}: center x, center y, radius, outline color</li>
+ * <li>{@link #TAG_FILLED_CIRCLE}: center x, center y, radius, outline color,
+ * fill color</li>
+ * </ul>
+ * <p>
+ * Coordinates and differences of coordinates are stored as zig-zag encoded
+ * variable-length integers (7 bits per byte, least significant group first),
+ * radii as plain variable-length integers, and colors as three bytes (red,
+ * green, blue).
+ * </p>
+ * 
+ * @author Marin
+ *
+ */
+final class JvdbFormat {
+	/**
+	 * The magic bytes every .jvdb document starts with.
+	 */
+	static final byte[] MAGIC = { 'J', 'V', 'D', 'B' };
+	/**
+	 * The version of the format written by this program.
+	 */
+	static final byte VERSION = 1;
+	/**
+	 * The size of the header in bytes.
+	 */
+	static final int HEADER_SIZE = MAGIC.length + 1;
+	/**
+	 * The tag of a line.
+	 */
+	static final byte TAG_LINE = 1;
+	/**
+	 * The tag of an empty circle.
+	 */
+	static final byte TAG_CIRCLE = 2;
+	/**
+	 * The tag of a filled circle.
+	 */
+	static final byte TAG_FILLED_CIRCLE = 3;
+	/**
+	 * An upper bound on the encoded size of a single object.
+	 */
+	static final int MAX_RECORD_SIZE = 1 + 4 * 5 + 3 + 3;
+
+	/**
+	 * The class only holds constants.
+	 */
+	private JvdbFormat() {
+	}
+}
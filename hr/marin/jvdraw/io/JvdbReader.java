@@ -0,0 +1,198 @@
+package hr.marin.jvdraw.io;
+
+import hr.marin.jvdraw.geometric.Circle;
+import hr.marin.jvdraw.geometric.ColorPalette;
+import hr.marin.jvdraw.geometric.GeometricalObject;
+import hr.marin.jvdraw.geometric.Line;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A streaming reader for the binary .jvdb document format, described in
+ * {@link JvdbFormat}. The document is read through a fixed-size byte buffer,
+ * so it never has to be held in memory as a whole.
+ * 
+ * @author Marin
+ *
+ */
+public class JvdbReader {
+	/**
+	 * The size of the read buffer.
+	 */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * Method reads the whole channel and passes the decoded
+	 * {@link GeometricalObject}s to the given consumer in batches, in document
+	 * order.
+	 * 
+	 * @param channel
+	 *            The channel that the document is read from.
+	 * @param batchSize
+	 *            The number of objects per batch. Only the last batch can be
+	 *            smaller.
+	 * @param sink
+	 *            The consumer that receives the batches.
+	 * @throws IOException
+	 *             If the channel could not be read, or if it does not contain
+	 *             a valid .jvdb document.
+	 */
+	public void read(ReadableByteChannel channel, int batchSize, BatchConsumer sink) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+		boolean endOfInput = fill(channel, buffer);
+		long bytesRead = buffer.limit();
+		readHeader(buffer);
+
+		List<GeometricalObject> batch = new ArrayList<>(batchSize);
+		while (true) {
+			while (buffer.remaining() >= JvdbFormat.MAX_RECORD_SIZE || (endOfInput && buffer.hasRemaining())) {
+				batch.add(readObject(buffer));
+				if (batch.size() == batchSize) {
+					sink.accept(batch, bytesRead - buffer.remaining());
+					batch = new ArrayList<>(batchSize);
+				}
+			}
+			if (endOfInput) {
+				sink.accept(batch, bytesRead);
+				return;
+			}
+
+			buffer.compact();
+			int kept = buffer.position();
+			endOfInput = fill(channel, buffer);
+			bytesRead += buffer.limit() - kept;
+		}
+	}
+
+	/**
+	 * Method fills the given buffer, which must be in write mode, from the
+	 * channel and flips it into read mode.
+	 * 
+	 * @param channel
+	 *            The channel that the document is read from.
+	 * @param buffer
+	 *            The buffer to fill.
+	 * @return True if the end of the channel has been reached.
+	 * @throws IOException
+	 *             If the channel could not be read.
+	 */
+	private static boolean fill(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+		boolean endOfInput = false;
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer) == -1) {
+				endOfInput = true;
+				break;
+			}
+		}
+		buffer.flip();
+		return endOfInput;
+	}
+
+	/**
+	 * Method reads and checks the header of the document.
+	 * 
+	 * @param buffer
+	 *            The buffer holding the document bytes.
+	 * @throws IOException
+	 *             If the header is missing or specifies an unsupported
+	 *             version.
+	 */
+	private static void readHeader(ByteBuffer buffer) throws IOException {
+		if (buffer.remaining() < JvdbFormat.HEADER_SIZE) {
+			throw new IOException("The file is not a .jvdb document.");
+		}
+		for (byte b : JvdbFormat.MAGIC) {
+			if (buffer.get() != b) {
+				throw new IOException("The file is not a .jvdb document.");
+			}
+		}
+
+		int version = buffer.get();
+		if (version != JvdbFormat.VERSION) {
+			throw new IOException("Unsupported .jvdb version: " + version + ".");
+		}
+	}
+
+	/**
+	 * Method decodes a single object.
+	 * 
+	 * @param buffer
+	 *            The buffer holding the document bytes.
+	 * @return The decoded object.
+	 * @throws IOException
+	 *             If the object is corrupt or truncated.
+	 */
+	private static GeometricalObject readObject(ByteBuffer buffer) throws IOException {
+		try {
+			byte tag = buffer.get();
+			switch (tag) {
+			case JvdbFormat.TAG_LINE:
+				int x = getSigned(buffer);
+				int y = getSigned(buffer);
+				int dx = getSigned(buffer);
+				int dy = getSigned(buffer);
+				return new Line(x, y, x + dx, y + dy, getColor(buffer));
+			case JvdbFormat.TAG_CIRCLE:
+			case JvdbFormat.TAG_FILLED_CIRCLE:
+				int centerX = getSigned(buffer);
+				int centerY = getSigned(buffer);
+				int radius = getUnsigned(buffer);
+				Color outline = getColor(buffer);
+				Color fill = (tag == JvdbFormat.TAG_FILLED_CIRCLE) ? getColor(buffer) : null;
+				return new Circle(centerX, centerY, radius, outline, fill);
+			default:
+				throw new IOException("Corrupt .jvdb document: unknown object tag " + tag + ".");
+			}
+		} catch (RuntimeException e) {
+			throw new IOException("Corrupt .jvdb document.", e);
+		}
+	}
+
+	/**
+	 * Method decodes a color stored as three bytes. The color is obtained from
+	 * the {@link ColorPalette}, so equal colors share a single instance.
+	 * 
+	 * @param buffer
+	 *            The buffer holding the document bytes.
+	 * @return The decoded color.
+	 */
+	private static Color getColor(ByteBuffer buffer) {
+		return ColorPalette.get(buffer.get() & 0xFF, buffer.get() & 0xFF, buffer.get() & 0xFF);
+	}
+
+	/**
+	 * Method decodes a zig-zag encoded variable-length integer.
+	 * 
+	 * @param buffer
+	 *            The buffer holding the document bytes.
+	 * @return The decoded integer.
+	 */
+	private static int getSigned(ByteBuffer buffer) {
+		int value = getUnsigned(buffer);
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * Method decodes a variable-length integer.
+	 * 
+	 * @param buffer
+	 *            The buffer holding the document bytes.
+	 * @return The decoded integer.
+	 */
+	private static int getUnsigned(ByteBuffer buffer) {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			byte b = buffer.get();
+			value |= (b & 0x7F) << shift;
+			if (b >= 0) {
+				return value;
+			}
+		}
+		throw new IllegalArgumentException("Variable-length integer is too long.");
+	}
+}
@@ -0,0 +1,143 @@
+package hr.marin.jvdraw.io;
+
+import hr.marin.jvdraw.geometric.Circle;
+import hr.marin.jvdraw.geometric.GeometricalObject;
+import hr.marin.jvdraw.geometric.Line;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * A streaming writer for the binary .jvdb document format, described in
+ * {@link JvdbFormat}. The objects are encoded into a reusable byte buffer,
+ * which is written to the underlying channel every time it fills up.
+ * 
+ * @author Marin
+ *
+ */
+public class JvdbWriter implements DrawingWriter {
+	/**
+	 * The size of the write buffer.
+	 */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * The channel the document is written to.
+	 */
+	private WritableByteChannel channel;
+	/**
+	 * The buffer holding the encoded objects that have not been written yet.
+	 */
+	private ByteBuffer buffer;
+
+	/**
+	 * Creates a new {@link JvdbWriter} that writes to the given channel. The
+	 * header of the document is written immediately.
+	 * 
+	 * @param channel
+	 *            The channel the document is written to.
+	 */
+	public JvdbWriter(WritableByteChannel channel) {
+		this.channel = channel;
+		buffer = ByteBuffer.allocate(BUFFER_SIZE);
+		buffer.put(JvdbFormat.MAGIC);
+		buffer.put(JvdbFormat.VERSION);
+	}
+
+	@Override
+	public void write(GeometricalObject object) throws IOException {
+		if (buffer.remaining() < JvdbFormat.MAX_RECORD_SIZE) {
+			flush();
+		}
+
+		if (object instanceof Line) {
+			Line line = (Line) object;
+			int startX = line.getStartX();
+			int startY = line.getStartY();
+			int endX = line.getEndX();
+			int endY = line.getEndY();
+			buffer.put(JvdbFormat.TAG_LINE);
+			putSigned(startX);
+			putSigned(startY);
+			putSigned(endX - startX);
+			putSigned(endY - startY);
+			putColor(line.getForegroundColor());
+		} else if (object instanceof Circle) {
+			Circle circle = (Circle) object;
+			int centerX = circle.getCenterX();
+			int centerY = circle.getCenterY();
+			Color fill = circle.getBackgroundColor();
+			buffer.put(fill == null ? JvdbFormat.TAG_CIRCLE : JvdbFormat.TAG_FILLED_CIRCLE);
+			putSigned(centerX);
+			putSigned(centerY);
+			putUnsigned(circle.getRadius());
+			putColor(circle.getForegroundColor());
+			if (fill != null) {
+				putColor(fill);
+			}
+		} else {
+			throw new IllegalArgumentException("Unsupported geometric object: " + object);
+		}
+	}
+
+	@Override
+	public void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	/**
+	 * Method flushes the buffered bytes and closes the channel.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			flush();
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Method encodes the given color as three bytes.
+	 * 
+	 * @param color
+	 *            The color to encode.
+	 */
+	private void putColor(Color color) {
+		buffer.put((byte) color.getRed());
+		buffer.put((byte) color.getGreen());
+		buffer.put((byte) color.getBlue());
+	}
+
+	/**
+	 * Method encodes the given signed integer as a zig-zag variable-length
+	 * integer.
+	 * 
+	 * @param value
+	 *            The integer to encode.
+	 */
+	private void putSigned(int value) {
+		putUnsigned((value << 1) ^ (value >> 31));
+	}
+
+	/**
+	 * Method encodes the given integer, regarded as unsigned, as a
+	 * variable-length integer.
+	 * 
+	 * @param value
+	 *            The integer to encode.
+	 */
+	private void putUnsigned(int value) {
+		while ((value & ~0x7F) != 0) {
+			buffer.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte) value);
+	}
+}
@@ -0,0 +1,257 @@
+package hr.marin.jvdraw.io;
+
+import hr.marin.jvdraw.geometric.GeometricalObject;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * <p>
+ * A loader that reads large .jvd documents in parallel. Since the .jvd format
+ * has one object per line, the document can be split at line boundaries into
+ * chunks that are parsed independently of each other.
+ * </p>
+ * <p>
+ * The loader memory-maps every chunk, parses the chunks on a
+ * {@link ForkJoinPool} with one {@link JvdParser} per chunk, and concatenates
+ * the results in document order.
+ * </p>
+ *
+ * @author Marin
+ *
+ */
+public class ParallelJvdLoader {
+	/**
+	 * The smallest chunk worth parsing on its own.
+	 */
+	private static final long MIN_CHUNK_SIZE = 1 << 20;
+	/**
+	 * The largest chunk, kept well below the 2 GB limit of a single mapping.
+	 */
+	private static final long MAX_CHUNK_SIZE = 1 << 28;
+	/**
+	 * The number of chunks per worker thread, so that uneven chunks still keep
+	 * all the workers busy.
+	 */
+	private static final int CHUNKS_PER_THREAD = 4;
+
+	/**
+	 * The pool that parses the chunks.
+	 */
+	private ForkJoinPool pool;
+
+	/**
+	 * Creates a new {@link ParallelJvdLoader} that uses the common
+	 * {@link ForkJoinPool}.
+	 */
+	public ParallelJvdLoader() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Creates a new {@link ParallelJvdLoader} that uses the given pool.
+	 *
+	 * @param pool
+	 *            The pool that parses the chunks.
+	 */
+	public ParallelJvdLoader(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Method reads all the geometric objects stored in the given .jvd file.
+	 *
+	 * @param path
+	 *            The file to read.
+	 * @return The read geometric objects, in file order.
+	 * @throws IOException
+	 *             If the file could not be read.
+	 */
+	public List<GeometricalObject> load(Path path) throws IOException {
+		List<List<GeometricalObject>> chunks = new ArrayList<>();
+		int[] total = new int[1];
+		load(path, (batch, bytesRead) -> {
+			chunks.add(batch);
+			total[0] += batch.size();
+		});
+
+		List<GeometricalObject> objects = new ArrayList<>(total[0]);
+		for (List<GeometricalObject> chunk : chunks) {
+			objects.addAll(chunk);
+		}
+		return objects;
+	}
+
+	/**
+	 * Method reads all the geometric objects stored in the given .jvd file and
+	 * passes them to the given consumer one chunk at a time, in file order.
+	 * Every chunk is passed on as soon as it and all the chunks before it have
+	 * been parsed. If the consumer throws an exception, the chunks that have
+	 * not been parsed yet are cancelled.
+	 *
+	 * @param path
+	 *            The file to read.
+	 * @param sink
+	 *            The consumer that receives the parsed chunks.
+	 * @throws IOException
+	 *             If the file could not be read.
+	 */
+	public void load(Path path, BatchConsumer sink) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long[] bounds = split(channel);
+
+			List<ChunkTask> tasks = new ArrayList<>();
+			for (int i = 0; i < bounds.length - 1; i++) {
+				if (bounds[i] < bounds[i + 1]) {
+					tasks.add(new ChunkTask(channel, bounds[i], bounds[i + 1]));
+				}
+			}
+			for (ChunkTask task : tasks) {
+				pool.execute(task);
+			}
+
+			try {
+				for (ChunkTask task : tasks) {
+					sink.accept(task.join(), task.end);
+				}
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			} finally {
+				for (ChunkTask task : tasks) {
+					task.cancel(false);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Method splits the file into chunks that start at line boundaries.
+	 *
+	 * @param channel
+	 *            The channel of the file.
+	 * @return The offsets of the chunk boundaries, starting with 0 and ending
+	 *         with the file size. Consecutive offsets can be equal.
+	 * @throws IOException
+	 *             If the file could not be read.
+	 */
+	private long[] split(FileChannel channel) throws IOException {
+		long size = channel.size();
+		long chunkCount = Math.min(size / MIN_CHUNK_SIZE, (long) pool.getParallelism() * CHUNKS_PER_THREAD);
+		chunkCount = Math.max(chunkCount, (size + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE);
+		chunkCount = Math.max(chunkCount, 1);
+
+		long[] bounds = new long[(int) chunkCount + 1];
+		bounds[bounds.length - 1] = size;
+		ByteBuffer buffer = ByteBuffer.allocate(4096);
+		for (int i = 1; i < bounds.length - 1; i++) {
+			long start = Math.max(size / chunkCount * i, bounds[i - 1]);
+			bounds[i] = nextLineStart(channel, start, size, buffer);
+		}
+		return bounds;
+	}
+
+	/**
+	 * Method finds the start of the first line that begins at or after the
+	 * given offset.
+	 *
+	 * @param channel
+	 *            The channel of the file.
+	 * @param offset
+	 *            The offset to search from.
+	 * @param size
+	 *            The size of the file.
+	 * @param buffer
+	 *            The buffer used for reading.
+	 * @return The offset of the line start, or the file size if there is no
+	 *         such line.
+	 * @throws IOException
+	 *             If the file could not be read.
+	 */
+	private static long nextLineStart(FileChannel channel, long offset, long size, ByteBuffer buffer)
+			throws IOException {
+		if (offset == 0) {
+			return 0;
+		}
+
+		long position = offset - 1;
+		while (position < size) {
+			buffer.clear();
+			int read = channel.read(buffer, position);
+			if (read <= 0) {
+				break;
+			}
+			for (int i = 0; i < read; i++) {
+				if (buffer.get(i) == '\n') {
+					return position + i + 1;
+				}
+			}
+			position += read;
+		}
+		return size;
+	}
+
+	/**
+	 * A task that maps and parses a single chunk of the file.
+	 *
+	 * @author Marin
+	 *
+	 */
+	private static class ChunkTask extends RecursiveTask<List<GeometricalObject>> {
+		/**
+		 * The default serial version UID.
+		 */
+		private static final long serialVersionUID = 1L;
+		/**
+		 * The channel of the file.
+		 */
+		private final transient FileChannel channel;
+		/**
+		 * The offset of the first byte of the chunk.
+		 */
+		private final long start;
+		/**
+		 * The offset right after the last byte of the chunk.
+		 */
+		private final long end;
+
+		/**
+		 * Creates a new task for the given chunk.
+		 *
+		 * @param channel
+		 *            The channel of the file.
+		 * @param start
+		 *            The offset of the first byte of the chunk.
+		 * @param end
+		 *            The offset right after the last byte of the chunk.
+		 */
+		ChunkTask(FileChannel channel, long start, long end) {
+			this.channel = channel;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected List<GeometricalObject> compute() {
+			MappedByteBuffer buffer;
+			try {
+				buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+
+			int length = (int) (end - start);
+			List<GeometricalObject> objects = new ArrayList<>(length / 32);
+			new JvdParser().parseLines(buffer, 0, length, true, objects::add);
+			return objects;
+		}
+	}
+}
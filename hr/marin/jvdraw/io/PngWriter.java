@@ -0,0 +1,245 @@
+package hr.marin.jvdraw.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * <p>
+ * A streaming encoder of 8-bit RGB PNG images. The image is written one row at
+ * a time, so only a single row has to be kept in memory, regardless of the
+ * size of the image.
+ * </p>
+ * <p>
+ * Every row is encoded with the Sub filter, which stores the difference of
+ * every byte from the same byte of the pixel to its left, and is compressed
+ * into IDAT chunks of bounded size as it arrives.
+ * </p>
+ *
+ * @author Marin
+ *
+ */
+public class PngWriter implements Closeable {
+	/**
+	 * The signature every PNG file starts with.
+	 */
+	private static final byte[] SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+	/**
+	 * The number of the Sub filter.
+	 */
+	private static final int FILTER_SUB = 1;
+	/**
+	 * The size of the data of a single IDAT chunk.
+	 */
+	private static final int CHUNK_SIZE = 1 << 16;
+
+	/**
+	 * The stream the image is written to.
+	 */
+	private OutputStream out;
+	/**
+	 * The width of the image.
+	 */
+	private int width;
+	/**
+	 * The height of the image.
+	 */
+	private int height;
+	/**
+	 * The number of rows written so far.
+	 */
+	private int rows;
+	/**
+	 * The compressor of the image data.
+	 */
+	private Deflater deflater;
+	/**
+	 * The filtered bytes of the current row, starting with the filter type.
+	 */
+	private byte[] row;
+	/**
+	 * The compressed data that has not been written yet.
+	 */
+	private byte[] chunk;
+	/**
+	 * The number of compressed bytes in {@link #chunk}.
+	 */
+	private int pending;
+	/**
+	 * The checksum of the current chunk.
+	 */
+	private CRC32 crc;
+
+	/**
+	 * Creates a new {@link PngWriter} and writes the header of the image to
+	 * the given stream. If the writer cannot be created, the stream is closed
+	 * before the exception is thrown.
+	 *
+	 * @param out
+	 *            The stream the image is written to.
+	 * @param width
+	 *            The width of the image.
+	 * @param height
+	 *            The height of the image.
+	 * @throws IOException
+	 *             If the header could not be written.
+	 * @throws IllegalArgumentException
+	 *             If the image is empty or too wide.
+	 */
+	public PngWriter(OutputStream out, int width, int height) throws IOException {
+		this.out = out;
+		this.width = width;
+		this.height = height;
+		try {
+			if (width <= 0 || height <= 0) {
+				throw new IllegalArgumentException("The image must not be empty: " + width + "x" + height + ".");
+			}
+			if (width > (Integer.MAX_VALUE - 1) / 3) {
+				throw new IllegalArgumentException("The image is too wide: " + width + ".");
+			}
+			deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+			row = new byte[1 + 3 * width];
+			chunk = new byte[CHUNK_SIZE];
+			crc = new CRC32();
+
+			out.write(SIGNATURE);
+			byte[] header = new byte[13];
+			putInt(header, 0, width);
+			putInt(header, 4, height);
+			header[8] = 8;
+			header[9] = 2;
+			writeChunk("IHDR", header, header.length);
+		} catch (Throwable e) {
+			if (deflater != null) {
+				deflater.end();
+			}
+			try {
+				out.close();
+			} catch (IOException suppressed) {
+				e.addSuppressed(suppressed);
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Method encodes the next row of the image.
+	 *
+	 * @param rgb
+	 *            The pixels, one RGB value each.
+	 * @param offset
+	 *            The offset of the first pixel of the row.
+	 * @throws IOException
+	 *             If the compressed data could not be written.
+	 */
+	public void writeRow(int[] rgb, int offset) throws IOException {
+		if (rows == height) {
+			throw new IllegalStateException("All the " + height + " rows have already been written.");
+		}
+
+		row[0] = FILTER_SUB;
+		int previous = 0;
+		for (int x = 0, i = 1; x < width; x++, i += 3) {
+			int pixel = rgb[offset + x];
+			row[i] = (byte) ((pixel >> 16) - (previous >> 16));
+			row[i + 1] = (byte) ((pixel >> 8) - (previous >> 8));
+			row[i + 2] = (byte) (pixel - previous);
+			previous = pixel;
+		}
+		rows++;
+
+		deflater.setInput(row);
+		while (!deflater.needsInput()) {
+			deflate();
+		}
+	}
+
+	/**
+	 * Method finishes the image and closes the underlying stream.
+	 *
+	 * @throws IOException
+	 *             If not all the rows have been written, or the rest of the
+	 *             image could not be written.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			if (rows != height) {
+				throw new IOException("Only " + rows + " of the " + height + " rows have been written.");
+			}
+			deflater.finish();
+			while (!deflater.finished()) {
+				deflate();
+			}
+			if (pending > 0) {
+				writeChunk("IDAT", chunk, pending);
+			}
+			writeChunk("IEND", chunk, 0);
+		} finally {
+			deflater.end();
+			out.close();
+		}
+	}
+
+	/**
+	 * Method compresses more data into the current chunk, and writes the
+	 * chunk once it is full.
+	 *
+	 * @throws IOException
+	 *             If the chunk could not be written.
+	 */
+	private void deflate() throws IOException {
+		pending += deflater.deflate(chunk, pending, chunk.length - pending);
+		if (pending == chunk.length) {
+			writeChunk("IDAT", chunk, pending);
+			pending = 0;
+		}
+	}
+
+	/**
+	 * Method writes a single chunk.
+	 *
+	 * @param type
+	 *            The type of the chunk.
+	 * @param data
+	 *            The data of the chunk.
+	 * @param length
+	 *            The length of the data.
+	 * @throws IOException
+	 *             If the chunk could not be written.
+	 */
+	private void writeChunk(String type, byte[] data, int length) throws IOException {
+		byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+		byte[] number = new byte[4];
+		putInt(number, 0, length);
+		out.write(number);
+		out.write(typeBytes);
+		out.write(data, 0, length);
+
+		crc.reset();
+		crc.update(typeBytes);
+		crc.update(data, 0, length);
+		putInt(number, 0, (int) crc.getValue());
+		out.write(number);
+	}
+
+	/**
+	 * Method stores the given integer in big-endian byte order.
+	 *
+	 * @param buffer
+	 *            The buffer to store the integer into.
+	 * @param offset
+	 *            The offset of the first byte.
+	 * @param value
+	 *            The integer to store.
+	 */
+	private static void putInt(byte[] buffer, int offset, int value) {
+		buffer[offset] = (byte) (value >>> 24);
+		buffer[offset + 1] = (byte) (value >>> 16);
+		buffer[offset + 2] = (byte) (value >>> 8);
+		buffer[offset + 3] = (byte) value;
+	}
+}
@@ -0,0 +1,187 @@
+package hr.marin.jvdraw.io;
+
+import hr.marin.jvdraw.geometric.Circle;
+import hr.marin.jvdraw.geometric.GeometricalObject;
+import hr.marin.jvdraw.geometric.Line;
+
+import java.awt.Color;
+import java.awt.Rectangle;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * <p>
+ * A streaming writer of drawings as SVG images. Every object is written as a
+ * single <code>line</code> or <code>circle</code> element as soon as it
+ * arrives, so the memory used by the writer does not depend on the size of
+ * the drawing, and the size of the image grows with the number of objects
+ * rather than with its area.
+ * </p>
+ * <p>
+ * The image covers the given bounds of the drawing, with the same white
+ * background and one-pixel strokes as the canvas. The elements are shifted by
+ * half a pixel, so that a stroke along an integer coordinate covers the same
+ * pixel as it does on the canvas.
+ * </p>
+ * <p>
+ * The writer does not buffer the output itself, so it should be given a
+ * buffered {@link Writer}.
+ * </p>
+ *
+ * @author Marin
+ *
+ */
+public class SvgWriter implements DrawingWriter {
+	/**
+	 * The hexadecimal digits used to encode colors.
+	 */
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	/**
+	 * The writer the image is written to.
+	 */
+	private Writer out;
+	/**
+	 * The scratch space used to format a single integer or color.
+	 */
+	private char[] digits;
+
+	/**
+	 * Creates a new {@link SvgWriter} and writes the header of an image
+	 * covering the given bounds.
+	 *
+	 * @param out
+	 *            The writer the image is written to.
+	 * @param bounds
+	 *            The part of the drawing the image covers. The rectangle is
+	 *            regarded as closed, so the image is one pixel wider and
+	 *            higher than the rectangle.
+	 * @throws IOException
+	 *             If the header could not be written.
+	 */
+	public SvgWriter(Writer out, Rectangle bounds) throws IOException {
+		this.out = out;
+		digits = new char[11];
+
+		int width = bounds.width + 1;
+		int height = bounds.height + 1;
+		out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+		out.write("<svg xmlns=\"http://www.w3.org/2000/svg\" version=\"1.1\" width=\"");
+		writeInt(width, "\" height=\"");
+		writeInt(height, "\" viewBox=\"");
+		writeInt(bounds.x, " ");
+		writeInt(bounds.y, " ");
+		writeInt(width, " ");
+		writeInt(height, "\">\n");
+		out.write("<rect x=\"");
+		writeInt(bounds.x, "\" y=\"");
+		writeInt(bounds.y, "\" width=\"");
+		writeInt(width, "\" height=\"");
+		writeInt(height, "\" fill=\"#ffffff\"/>\n");
+		out.write("<g transform=\"translate(0.5 0.5)\" stroke-width=\"1\" fill=\"none\">\n");
+	}
+
+	/**
+	 * Method writes the given geometric object as a single SVG element.
+	 */
+	@Override
+	public void write(GeometricalObject object) throws IOException {
+		if (object instanceof Line) {
+			Line line = (Line) object;
+			int startX = line.getStartX();
+			int startY = line.getStartY();
+			int endX = line.getEndX();
+			int endY = line.getEndY();
+			out.write("<line x1=\"");
+			writeInt(startX, "\" y1=\"");
+			writeInt(startY, "\" x2=\"");
+			writeInt(endX, "\" y2=\"");
+			writeInt(endY, "\" stroke=\"");
+			writeColor(line.getForegroundColor(), "\"/>\n");
+		} else if (object instanceof Circle) {
+			Circle circle = (Circle) object;
+			int centerX = circle.getCenterX();
+			int centerY = circle.getCenterY();
+			Color fill = circle.getBackgroundColor();
+			out.write("<circle cx=\"");
+			writeInt(centerX, "\" cy=\"");
+			writeInt(centerY, "\" r=\"");
+			writeInt(circle.getRadius(), "\" stroke=\"");
+			if (fill == null) {
+				writeColor(circle.getForegroundColor(), "\"/>\n");
+			} else {
+				writeColor(circle.getForegroundColor(), "\" fill=\"");
+				writeColor(fill, "\"/>\n");
+			}
+		} else {
+			throw new IllegalArgumentException("Unsupported geometric object: " + object);
+		}
+	}
+
+	@Override
+	public void flush() throws IOException {
+		out.flush();
+	}
+
+	/**
+	 * Method finishes the image and closes the underlying writer.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			out.write("</g>\n</svg>\n");
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Method writes the given color in the <code>#rrggbb</code> notation.
+	 *
+	 * @param color
+	 *            The color to write.
+	 * @param suffix
+	 *            The text written after the color.
+	 * @throws IOException
+	 *             If the color could not be written.
+	 */
+	private void writeColor(Color color, String suffix) throws IOException {
+		int rgb = color.getRGB();
+		digits[0] = '#';
+		for (int i = 6; i > 0; i--) {
+			digits[i] = HEX[rgb & 0xF];
+			rgb >>= 4;
+		}
+		out.write(digits, 0, 7);
+		out.write(suffix);
+	}
+
+	/**
+	 * Method writes the given integer in decimal.
+	 *
+	 * @param value
+	 *            The integer to write.
+	 * @param suffix
+	 *            The text written after the integer.
+	 * @throws IOException
+	 *             If the integer could not be written.
+	 */
+	private void writeInt(int value, String suffix) throws IOException {
+		long v = value;
+		boolean negative = v < 0;
+		if (negative) {
+			v = -v;
+		}
+
+		int i = digits.length;
+		do {
+			digits[--i] = (char) ('0' + v % 10);
+			v /= 10;
+		} while (v != 0);
+		if (negative) {
+			digits[--i] = '-';
+		}
+		out.write(digits, i, digits.length - i);
+		out.write(suffix);
+	}
+}
@@ -0,0 +1,283 @@
+package hr.marin.jvdraw.list;
+
+import hr.marin.jvdraw.model.DrawingSelection;
+import hr.marin.jvdraw.model.SelectionListener;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+import javax.swing.ListSelectionModel;
+import javax.swing.event.ListSelectionEvent;
+import javax.swing.event.ListSelectionListener;
+
+/**
+ * <p>
+ * An implementation of the {@link ListSelectionModel} that represents the
+ * selection of a {@link DrawingObjectList}. It does not keep a selection of its
+ * own, but shows and changes a {@link DrawingSelection}, so the list and the
+ * canvas always agree on which objects are selected.
+ * </p>
+ * <p>
+ * Every change of the drawing selection is reported to the list as a single
+ * {@link ListSelectionEvent} covering all the changed indices, so selecting
+ * thousands of objects at once repaints the list only once.
+ * </p>
+ * 
+ * @author Marin
+ *
+ */
+public class DrawingSelectionListModel implements ListSelectionModel, SelectionListener {
+	/**
+	 * The selection shown by this model.
+	 */
+	private DrawingSelection selection;
+	/**
+	 * The listeners registered to this model.
+	 */
+	private List<ListSelectionListener> listeners;
+	/**
+	 * The selection mode, one of the constants of {@link ListSelectionModel}.
+	 */
+	private int selectionMode;
+	/**
+	 * The anchor index, or -1 if there is none.
+	 */
+	private int anchor;
+	/**
+	 * The lead index, or -1 if there is none.
+	 */
+	private int lead;
+	/**
+	 * True if the selection is undergoing a series of changes.
+	 */
+	private boolean valueIsAdjusting;
+	/**
+	 * The smallest index changed while the selection was adjusting, or -1 if
+	 * nothing has changed.
+	 */
+	private int adjustedFrom;
+	/**
+	 * The largest index changed while the selection was adjusting.
+	 */
+	private int adjustedTo;
+
+	/**
+	 * Creates a new {@link DrawingSelectionListModel} showing the given
+	 * drawing selection.
+	 * 
+	 * @param selection
+	 *            The selection shown by this model.
+	 */
+	public DrawingSelectionListModel(DrawingSelection selection) {
+		this.selection = selection;
+		selectionMode = MULTIPLE_INTERVAL_SELECTION;
+		anchor = -1;
+		lead = -1;
+		adjustedFrom = -1;
+		selection.addSelectionListener(this);
+	}
+
+	@Override
+	public void setSelectionInterval(int index0, int index1) {
+		if (index0 == -1 || index1 == -1) {
+			return;
+		}
+
+		if (selectionMode == SINGLE_SELECTION) {
+			index0 = index1;
+		}
+		setAnchorAndLead(index0, index1);
+		selection.setInterval(index0, index1);
+	}
+
+	@Override
+	public void addSelectionInterval(int index0, int index1) {
+		if (index0 == -1 || index1 == -1) {
+			return;
+		}
+
+		if (selectionMode != MULTIPLE_INTERVAL_SELECTION) {
+			setSelectionInterval(index0, index1);
+			return;
+		}
+		setAnchorAndLead(index0, index1);
+		selection.addInterval(index0, index1);
+	}
+
+	@Override
+	public void removeSelectionInterval(int index0, int index1) {
+		if (index0 == -1 || index1 == -1) {
+			return;
+		}
+
+		setAnchorAndLead(index0, index1);
+		selection.removeInterval(index0, index1);
+	}
+
+	@Override
+	public int getMinSelectionIndex() {
+		return selection.nextSelected(0);
+	}
+
+	@Override
+	public int getMaxSelectionIndex() {
+		return selection.previousSelected(Integer.MAX_VALUE);
+	}
+
+	@Override
+	public boolean isSelectedIndex(int index) {
+		return selection.isSelected(index);
+	}
+
+	@Override
+	public int getAnchorSelectionIndex() {
+		return anchor;
+	}
+
+	@Override
+	public void setAnchorSelectionIndex(int index) {
+		anchor = index;
+	}
+
+	@Override
+	public int getLeadSelectionIndex() {
+		return lead;
+	}
+
+	@Override
+	public void setLeadSelectionIndex(int index) {
+		lead = index;
+	}
+
+	@Override
+	public void clearSelection() {
+		selection.clear();
+	}
+
+	@Override
+	public boolean isSelectionEmpty() {
+		return selection.isEmpty();
+	}
+
+	/**
+	 * {@inheritDoc} The indices of the drawing selection are kept in step with
+	 * the drawing model by the selection itself, so this method does nothing.
+	 */
+	@Override
+	public void insertIndexInterval(int index, int length, boolean before) {
+	}
+
+	/**
+	 * {@inheritDoc} The indices of the drawing selection are kept in step with
+	 * the drawing model by the selection itself, so this method does nothing.
+	 */
+	@Override
+	public void removeIndexInterval(int index0, int index1) {
+	}
+
+	@Override
+	public void setValueIsAdjusting(boolean valueIsAdjusting) {
+		if (this.valueIsAdjusting == valueIsAdjusting) {
+			return;
+		}
+
+		this.valueIsAdjusting = valueIsAdjusting;
+		if (!valueIsAdjusting && adjustedFrom != -1) {
+			int index0 = adjustedFrom;
+			adjustedFrom = -1;
+			fireValueChanged(index0, adjustedTo);
+		}
+	}
+
+	@Override
+	public boolean getValueIsAdjusting() {
+		return valueIsAdjusting;
+	}
+
+	@Override
+	public void setSelectionMode(int selectionMode) {
+		if (selectionMode != SINGLE_SELECTION && selectionMode != SINGLE_INTERVAL_SELECTION
+				&& selectionMode != MULTIPLE_INTERVAL_SELECTION) {
+			throw new IllegalArgumentException("Invalid selection mode: " + selectionMode + ".");
+		}
+		this.selectionMode = selectionMode;
+	}
+
+	@Override
+	public int getSelectionMode() {
+		return selectionMode;
+	}
+
+	@Override
+	public void addListSelectionListener(ListSelectionListener l) {
+		if (l == null) {
+			return;
+		}
+
+		if (listeners == null) {
+			listeners = new LinkedList<>();
+		}
+
+		listeners.add(l);
+	}
+
+	@Override
+	public void removeListSelectionListener(ListSelectionListener l) {
+		if (l == null || listeners == null) {
+			return;
+		}
+
+		Iterator<ListSelectionListener> it = listeners.iterator();
+		while (it.hasNext()) {
+			ListSelectionListener listener = it.next();
+			if (listener.equals(l)) {
+				it.remove();
+				return;
+			}
+		}
+	}
+
+	@Override
+	public void selectionChanged(DrawingSelection source, int index0, int index1) {
+		if (valueIsAdjusting) {
+			adjustedTo = (adjustedFrom == -1) ? index1 : Math.max(adjustedTo, index1);
+			adjustedFrom = (adjustedFrom == -1) ? index0 : Math.min(adjustedFrom, index0);
+		}
+		fireValueChanged(index0, index1);
+	}
+
+	/**
+	 * Method updates the anchor and the lead after the given interval was
+	 * selected or deselected.
+	 * 
+	 * @param index0
+	 *            The index the interval was started at.
+	 * @param index1
+	 *            The index the interval was ended at.
+	 */
+	private void setAnchorAndLead(int index0, int index1) {
+		anchor = index0;
+		lead = index1;
+	}
+
+	/**
+	 * Method notifies all the registered listeners of a change of the
+	 * selection in the given index interval.
+	 * 
+	 * @param index0
+	 *            The smallest changed index.
+	 * @param index1
+	 *            The largest changed index.
+	 */
+	private void fireValueChanged(int index0, int index1) {
+		if (listeners == null) {
+			return;
+		}
+
+		ListSelectionEvent event = new ListSelectionEvent(this, index0, index1, valueIsAdjusting);
+		for (ListSelectionListener listener : listeners) {
+			listener.valueChanged(event);
+		}
+	}
+}
@@ -0,0 +1,282 @@
+package hr.marin.jvdraw.model;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.geom.Point2D;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+import hr.marin.jvdraw.geometric.GeometricalObject;
+
+/**
+ * <p>
+ * A skeletal implementation of the {@link DrawingModel} interface that
+ * implements everything except the storage of the objects: the listeners, the
+ * batching of their notifications, and the spatial index over the bounding
+ * rectangles of the objects.
+ * </p>
+ * <p>
+ * Subclasses store the objects and report every added or changed object
+ * through {@link #fireObjectAdded(int, Rectangle)} and
+ * {@link #fireObjectChanged(int, Rectangle)}, which keep the spatial index up
+ * to date and notify the listeners.
+ * </p>
+ *
+ * @author Marin
+ *
+ */
+public abstract class AbstractDrawingModel implements DrawingModel {
+	/**
+	 * The spatial index over the bounding rectangles of all the stored
+	 * objects.
+	 */
+	private SpatialIndex spatialIndex;
+	/**
+	 * All the listeners of this model.
+	 */
+	private List<DrawingModelListener> listeners;
+	/**
+	 * The number of batches that have been started but not yet ended.
+	 */
+	private int batchDepth;
+	/**
+	 * The first index of the objects added during the current batch, or -1 if
+	 * nothing was added.
+	 */
+	private int addedFrom = -1;
+	/**
+	 * The last index of the objects added during the current batch.
+	 */
+	private int addedTo;
+	/**
+	 * The first index of the objects changed during the current batch, or -1
+	 * if nothing was changed.
+	 */
+	private int changedFrom = -1;
+	/**
+	 * The last index of the objects changed during the current batch.
+	 */
+	private int changedTo;
+
+	/**
+	 * An enumeration that contains all types of actions that can be made on the
+	 * drawing model.
+	 *
+	 * @author Marin
+	 *
+	 */
+	private enum ObjectAction {
+		/**
+		 * If the model had its geometric objects changed
+		 */
+		CHANGED,
+		/**
+		 * If geometric objects were added to the model
+		 */
+		ADDED,
+		/**
+		 * If geometric objects were removed from the model
+		 */
+		REMOVED
+	}
+
+	/**
+	 * Creates a new {@link AbstractDrawingModel} with an empty spatial index.
+	 */
+	protected AbstractDrawingModel() {
+		spatialIndex = new SpatialIndex();
+	}
+
+	@Override
+	public void addAll(Collection<? extends GeometricalObject> objects) {
+		beginBatch();
+		try {
+			for (GeometricalObject object : objects) {
+				add(object);
+			}
+		} finally {
+			endBatch();
+		}
+	}
+
+	@Override
+	public void beginBatch() {
+		batchDepth++;
+	}
+
+	@Override
+	public void endBatch() {
+		if (batchDepth == 0) {
+			throw new IllegalStateException("There is no batch to end.");
+		}
+		if (--batchDepth > 0) {
+			return;
+		}
+
+		if (changedFrom != -1) {
+			int to = (addedFrom == -1) ? changedTo : Math.min(changedTo, addedFrom - 1);
+			if (changedFrom <= to) {
+				fireListeners(ObjectAction.CHANGED, changedFrom, to);
+			}
+			changedFrom = -1;
+		}
+		if (addedFrom != -1) {
+			fireListeners(ObjectAction.ADDED, addedFrom, addedTo);
+			addedFrom = -1;
+		}
+	}
+
+	@Override
+	public int[] getIndicesIn(Rectangle area) {
+		return spatialIndex.query(area.x, area.y, area.x + area.width, area.y + area.height);
+	}
+
+	@Override
+	public int[] getIndicesAt(Point point) {
+		return spatialIndex.query(point.x, point.y, point.x, point.y);
+	}
+
+	@Override
+	public int getIndexAt(Point2D point, double tolerance) {
+		double x = point.getX();
+		double y = point.getY();
+		int[] candidates = spatialIndex.query((int) Math.floor(x - tolerance), (int) Math.floor(y - tolerance),
+				(int) Math.ceil(x + tolerance), (int) Math.ceil(y + tolerance));
+		for (int i = candidates.length - 1; i >= 0; i--) {
+			if (getObject(candidates[i]).contains(x, y, tolerance)) {
+				return candidates[i];
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int[] getIndicesIntersecting(Rectangle area) {
+		long maxX = (long) area.x + area.width;
+		long maxY = (long) area.y + area.height;
+		int[] candidates = getIndicesIn(area);
+		int count = 0;
+		for (int index : candidates) {
+			Rectangle bounds = spatialIndex.getBoundingRect(index);
+			boolean inside = bounds.x >= area.x && bounds.y >= area.y && (long) bounds.x + bounds.width <= maxX
+					&& (long) bounds.y + bounds.height <= maxY;
+			if (inside || getObject(index).intersects(area)) {
+				candidates[count++] = index;
+			}
+		}
+		return Arrays.copyOf(candidates, count);
+	}
+
+	@Override
+	public Rectangle getBounds() {
+		return spatialIndex.getBounds();
+	}
+
+	@Override
+	public void addDrawingModelListener(DrawingModelListener l) {
+		if (l == null) {
+			return;
+		}
+
+		if (listeners == null) {
+			listeners = new LinkedList<>();
+		}
+
+		listeners.add(l);
+	}
+
+	@Override
+	public void removeDrawingModelListener(DrawingModelListener l) {
+		if (l == null || listeners == null) {
+			return;
+		}
+
+		Iterator<DrawingModelListener> it = listeners.iterator();
+		while (it.hasNext()) {
+			DrawingModelListener listener = it.next();
+			if (listener.equals(l)) {
+				it.remove();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Method adds a newly stored object to the spatial index and notifies the
+	 * listeners of its addition.
+	 *
+	 * @param index
+	 *            The index of the added object.
+	 * @param bounds
+	 *            The bounding rectangle of the added object.
+	 */
+	protected void fireObjectAdded(int index, Rectangle bounds) {
+		spatialIndex.insert(index, bounds);
+		fireListeners(ObjectAction.ADDED, index, index);
+	}
+
+	/**
+	 * Method updates the spatial index with the new bounds of a changed object
+	 * and notifies the listeners of the change.
+	 *
+	 * @param index
+	 *            The index of the changed object.
+	 * @param bounds
+	 *            The new bounding rectangle of the changed object.
+	 */
+	protected void fireObjectChanged(int index, Rectangle bounds) {
+		spatialIndex.update(index, bounds);
+		fireListeners(ObjectAction.CHANGED, index, index);
+	}
+
+	/**
+	 * Method notifies all the registered listeners that a geometric object has
+	 * changed. During a batch, additions and changes are only recorded, to be
+	 * reported once the batch ends.
+	 *
+	 * @param objectAction
+	 *            Specifies what kind of action was performed on the drawing
+	 *            model.
+	 * @param index0
+	 *            The first index of the interval that was changed.
+	 * @param index1
+	 *            The last index of the interval that was changed.
+	 */
+	private void fireListeners(ObjectAction objectAction, int index0, int index1) {
+		if (batchDepth > 0) {
+			switch (objectAction) {
+			case ADDED:
+				addedTo = (addedFrom == -1) ? index1 : Math.max(addedTo, index1);
+				addedFrom = (addedFrom == -1) ? index0 : Math.min(addedFrom, index0);
+				return;
+			case CHANGED:
+				changedTo = (changedFrom == -1) ? index1 : Math.max(changedTo, index1);
+				changedFrom = (changedFrom == -1) ? index0 : Math.min(changedFrom, index0);
+				return;
+			default:
+				break;
+			}
+		}
+
+		if (listeners == null) {
+			return;
+		}
+
+		for (DrawingModelListener listener : listeners) {
+			switch (objectAction) {
+			case ADDED:
+				listener.objectsAdded(this, index0, index1);
+				break;
+			case REMOVED:
+				listener.objectsRemoved(this, index0, index1);
+				break;
+			case CHANGED:
+				listener.objectsChanged(this, index0, index1);
+				break;
+			}
+		}
+	}
+}
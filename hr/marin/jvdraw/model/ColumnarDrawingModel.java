@@ -0,0 +1,70 @@
+package hr.marin.jvdraw.model;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * A {@link RecordDrawingModel} that stores the records column by column in
+ * primitive arrays on the heap. Every object takes one byte for its type and
+ * six <code>int</code>s, one in each field column.
+ * </p>
+ *
+ * @author Marin
+ *
+ */
+public class ColumnarDrawingModel extends RecordDrawingModel {
+	/**
+	 * The initial capacity of the columns.
+	 */
+	private static final int INITIAL_CAPACITY = 64;
+
+	/**
+	 * The type of every object.
+	 */
+	private byte[] types;
+	/**
+	 * The columns of the fields, indexed by field and then by object.
+	 */
+	private int[][] columns;
+
+	/**
+	 * Creates a new empty {@link ColumnarDrawingModel}.
+	 */
+	public ColumnarDrawingModel() {
+		types = new byte[INITIAL_CAPACITY];
+		columns = new int[FIELD_COUNT][INITIAL_CAPACITY];
+	}
+
+	@Override
+	protected void ensureCapacity(int capacity) {
+		if (capacity <= types.length) {
+			return;
+		}
+
+		int newCapacity = Math.max(capacity, types.length * 2);
+		types = Arrays.copyOf(types, newCapacity);
+		for (int field = 0; field < FIELD_COUNT; field++) {
+			columns[field] = Arrays.copyOf(columns[field], newCapacity);
+		}
+	}
+
+	@Override
+	protected byte getType(int index) {
+		return types[index];
+	}
+
+	@Override
+	protected void setType(int index, byte type) {
+		types[index] = type;
+	}
+
+	@Override
+	protected int getField(int index, int field) {
+		return columns[field][index];
+	}
+
+	@Override
+	protected void setField(int index, int field, int value) {
+		columns[field][index] = value;
+	}
+}
@@ -1,58 +1,167 @@
-package hr.marin.jvdraw.model;
-
-import hr.marin.jvdraw.JVDraw;
-import hr.marin.jvdraw.geometric.GeometricalObject;
-
-/**
- * <p>
- * An interface that specifies the methods that a class must implement in order
- * to be a drawing model, used by various components in the {@link JVDraw}
- * program (canvas, list, etc.).
- * </p>
- * 
- * @author Marin
- *
- */
-public interface DrawingModel {
-	/**
-	 * Gets the number of {@link GeometricalObject}s stored in this model.
-	 * 
-	 * @return The number of {@link GeometricalObject}s stored in this model
-	 */
-	public int getSize();
-
-	/**
-	 * Gets the {@link GeometricalObject} at the given index.
-	 * 
-	 * @param index
-	 *            The index of the returned geometric object
-	 * @return The geometric object at the given index
-	 */
-	public GeometricalObject getObject(int index);
-
-	/**
-	 * Adds a {@link GeometricalObject} to the model.
-	 * 
-	 * @param object
-	 *            The geometric object that is to be added to the model
-	 */
-	public void add(GeometricalObject object);
-
-	/**
-	 * Adds a {@link DrawingModelListener} to this model. The added listener
-	 * will be notified whenever this model is changed.
-	 * 
-	 * @param l
-	 *            The listener that will get registered to this model.
-	 */
-	public void addDrawingModelListener(DrawingModelListener l);
-
-	/**
-	 * Removes the given {@link DrawingModelListener} from this model. If there
-	 * is no such listener in the model, the method does nothing.
-	 * 
-	 * @param l
-	 *            The listener that will get deregistered from this model.
-	 */
-	public void removeDrawingModelListener(DrawingModelListener l);
-}
+package hr.marin.jvdraw.model;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.geom.Point2D;
+import java.util.Collection;
+
+import hr.marin.jvdraw.JVDraw;
+import hr.marin.jvdraw.geometric.GeometricalObject;
+
+/**
+ * <p>
+ * An interface that specifies the methods that a class must implement in order
+ * to be a drawing model, used by various components in the {@link JVDraw}
+ * program (canvas, list, etc.).
+ * </p>
+ * 
+ * @author Marin
+ *
+ */
+public interface DrawingModel {
+	/**
+	 * Gets the number of {@link GeometricalObject}s stored in this model.
+	 * 
+	 * @return The number of {@link GeometricalObject}s stored in this model
+	 */
+	public int getSize();
+
+	/**
+	 * Gets the {@link GeometricalObject} at the given index. Repeated calls
+	 * return equal objects, which need not be identical.
+	 * 
+	 * @param index
+	 *            The index of the returned geometric object
+	 * @return The geometric object at the given index
+	 */
+	public GeometricalObject getObject(int index);
+
+	/**
+	 * Adds a {@link GeometricalObject} to the model. A model may store a copy
+	 * of the object instead of the object itself, so the object that is
+	 * changed afterwards should be obtained through {@link #getObject(int)}.
+	 * 
+	 * @param object
+	 *            The geometric object that is to be added to the model
+	 */
+	public void add(GeometricalObject object);
+
+	/**
+	 * Adds all the given {@link GeometricalObject}s to the model, in the order
+	 * they are returned by the collection's iterator. The listeners are
+	 * notified only once, after all the objects have been added.
+	 * 
+	 * @param objects
+	 *            The geometric objects that are to be added to the model
+	 */
+	public void addAll(Collection<? extends GeometricalObject> objects);
+
+	/**
+	 * <p>
+	 * Starts a batch of changes. Until the matching {@link #endBatch()} call,
+	 * the listeners of this model are not notified of any additions or
+	 * changes. Instead, the model collects them and reports them with a single
+	 * event per kind of change when the batch ends.
+	 * </p>
+	 * <p>
+	 * Batches can be nested, in which case the events are fired when the
+	 * outermost batch ends.
+	 * </p>
+	 */
+	public void beginBatch();
+
+	/**
+	 * Ends a batch of changes started by {@link #beginBatch()}. If this was
+	 * the outermost batch, the listeners are notified of all the changes
+	 * collected during the batch.
+	 * 
+	 * @throws IllegalStateException
+	 *             If there is no batch to end.
+	 */
+	public void endBatch();
+
+	/**
+	 * Gets the indices of all the {@link GeometricalObject}s whose bounding
+	 * rectangles intersect the given area. Both the area and the bounding
+	 * rectangles are regarded as closed, i.e. a rectangle
+	 * <code>(x, y, w, h)</code> covers the points from <code>(x, y)</code> up
+	 * to and including <code>(x + w, y + h)</code>.
+	 * 
+	 * @param area
+	 *            The area that is searched for geometric objects.
+	 * @return The indices of the found geometric objects, sorted in ascending
+	 *         (drawing) order.
+	 */
+	public int[] getIndicesIn(Rectangle area);
+
+	/**
+	 * Gets the indices of all the {@link GeometricalObject}s whose bounding
+	 * rectangles contain the given point.
+	 * 
+	 * @param point
+	 *            The point that is searched for geometric objects.
+	 * @return The indices of the found geometric objects, sorted in ascending
+	 *         (drawing) order.
+	 */
+	public int[] getIndicesAt(Point point);
+
+	/**
+	 * Gets the index of the topmost {@link GeometricalObject} that lies on the
+	 * given point, or within the given distance of it. Unlike
+	 * {@link #getIndicesAt(Point)}, the exact geometry of the objects is
+	 * tested, not just their bounding rectangles. If several objects lie on
+	 * the point, the one with the highest index, which is drawn last, is
+	 * chosen.
+	 * 
+	 * @param point
+	 *            The point that is searched for geometric objects. Its
+	 *            coordinates need not be integers.
+	 * @param tolerance
+	 *            The largest distance from an object at which the point still
+	 *            counts as lying on it.
+	 * @return The index of the found geometric object, or -1 if there is no
+	 *         object at the given point.
+	 */
+	public int getIndexAt(Point2D point, double tolerance);
+
+	/**
+	 * Gets the indices of all the {@link GeometricalObject}s that lie in the
+	 * given area or cross it. Unlike {@link #getIndicesIn(Rectangle)}, the
+	 * exact geometry of the objects is tested, not just their bounding
+	 * rectangles. The area is regarded as closed.
+	 * 
+	 * @param area
+	 *            The area that is searched for geometric objects.
+	 * @return The indices of the found geometric objects, sorted in ascending
+	 *         (drawing) order.
+	 */
+	public int[] getIndicesIntersecting(Rectangle area);
+
+	/**
+	 * Gets the smallest rectangle that contains the bounding rectangles of all
+	 * the {@link GeometricalObject}s in this model. The rectangle is
+	 * maintained as the model changes, so this method does not scan the
+	 * objects.
+	 * 
+	 * @return The bounds of the whole drawing, or null if this model is empty.
+	 */
+	public Rectangle getBounds();
+
+	/**
+	 * Adds a {@link DrawingModelListener} to this model. The added listener
+	 * will be notified whenever this model is changed.
+	 * 
+	 * @param l
+	 *            The listener that will get registered to this model.
+	 */
+	public void addDrawingModelListener(DrawingModelListener l);
+
+	/**
+	 * Removes the given {@link DrawingModelListener} from this model. If there
+	 * is no such listener in the model, the method does nothing.
+	 * 
+	 * @param l
+	 *            The listener that will get deregistered from this model.
+	 */
+	public void removeDrawingModelListener(DrawingModelListener l);
+}
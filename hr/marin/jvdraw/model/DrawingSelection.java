@@ -0,0 +1,278 @@
+package hr.marin.jvdraw.model;
+
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * <p>
+ * The set of selected objects of a {@link DrawingModel}. The objects are
+ * identified by their index in the model, and the selection is kept in a
+ * {@link BitSet}, so that even a selection of millions of objects takes only a
+ * bit per object.
+ * </p>
+ * <p>
+ * Every method that changes the selection notifies the listeners only once,
+ * with the range of indices that were affected, no matter how many objects
+ * were selected or deselected. The selection registers itself to the model,
+ * and keeps its indices in step with the objects as they are added or
+ * removed.
+ * </p>
+ * 
+ * @author Marin
+ *
+ */
+public class DrawingSelection implements DrawingModelListener {
+	/**
+	 * The indices of the selected objects.
+	 */
+	private BitSet selected;
+	/**
+	 * The listeners registered to this selection.
+	 */
+	private List<SelectionListener> listeners;
+
+	/**
+	 * Creates a new empty {@link DrawingSelection} of the objects of the given
+	 * model.
+	 * 
+	 * @param model
+	 *            The model whose objects are selected.
+	 */
+	public DrawingSelection(DrawingModel model) {
+		selected = new BitSet();
+		model.addDrawingModelListener(this);
+	}
+
+	/**
+	 * Checks whether the object with the given index is selected.
+	 * 
+	 * @param index
+	 *            The index of the object.
+	 * @return True if the object is selected, false otherwise.
+	 */
+	public boolean isSelected(int index) {
+		return index >= 0 && selected.get(index);
+	}
+
+	/**
+	 * Checks whether no object is selected.
+	 * 
+	 * @return True if the selection is empty, false otherwise.
+	 */
+	public boolean isEmpty() {
+		return selected.isEmpty();
+	}
+
+	/**
+	 * Gets the number of selected objects.
+	 * 
+	 * @return The number of selected objects.
+	 */
+	public int getSelectedCount() {
+		return selected.cardinality();
+	}
+
+	/**
+	 * Gets the index of the first selected object at or after the given index.
+	 * 
+	 * @param index
+	 *            The index the search starts at.
+	 * @return The index of the found object, or -1 if there is none.
+	 */
+	public int nextSelected(int index) {
+		return selected.nextSetBit(index);
+	}
+
+	/**
+	 * Gets the index of the last selected object at or before the given
+	 * index.
+	 * 
+	 * @param index
+	 *            The index the search starts at.
+	 * @return The index of the found object, or -1 if there is none.
+	 */
+	public int previousSelected(int index) {
+		return selected.previousSetBit(index);
+	}
+
+	/**
+	 * Gets the indices of the selected objects.
+	 * 
+	 * @return A copy of the set of selected indices.
+	 */
+	public BitSet getSelected() {
+		return (BitSet) selected.clone();
+	}
+
+	/**
+	 * Replaces the selection by the objects with the given indices.
+	 * 
+	 * @param indices
+	 *            The indices of the objects to select.
+	 */
+	public void setSelected(BitSet indices) {
+		update((BitSet) indices.clone());
+	}
+
+	/**
+	 * Adds the objects with the given indices to the selection.
+	 * 
+	 * @param indices
+	 *            The indices of the objects to select.
+	 */
+	public void addSelected(BitSet indices) {
+		BitSet newSelected = getSelected();
+		newSelected.or(indices);
+		update(newSelected);
+	}
+
+	/**
+	 * Replaces the selection by the objects in the given index interval. The
+	 * interval may be given in either order.
+	 * 
+	 * @param index0
+	 *            One end of the interval.
+	 * @param index1
+	 *            The other end of the interval.
+	 */
+	public void setInterval(int index0, int index1) {
+		BitSet newSelected = new BitSet();
+		newSelected.set(Math.min(index0, index1), Math.max(index0, index1) + 1);
+		update(newSelected);
+	}
+
+	/**
+	 * Adds the objects in the given index interval to the selection. The
+	 * interval may be given in either order.
+	 * 
+	 * @param index0
+	 *            One end of the interval.
+	 * @param index1
+	 *            The other end of the interval.
+	 */
+	public void addInterval(int index0, int index1) {
+		BitSet newSelected = getSelected();
+		newSelected.set(Math.min(index0, index1), Math.max(index0, index1) + 1);
+		update(newSelected);
+	}
+
+	/**
+	 * Removes the objects in the given index interval from the selection. The
+	 * interval may be given in either order.
+	 * 
+	 * @param index0
+	 *            One end of the interval.
+	 * @param index1
+	 *            The other end of the interval.
+	 */
+	public void removeInterval(int index0, int index1) {
+		BitSet newSelected = getSelected();
+		newSelected.clear(Math.min(index0, index1), Math.max(index0, index1) + 1);
+		update(newSelected);
+	}
+
+	/**
+	 * Deselects all the objects.
+	 */
+	public void clear() {
+		update(new BitSet());
+	}
+
+	/**
+	 * Adds a {@link SelectionListener} to this selection. The added listener
+	 * will be notified whenever this selection is changed.
+	 * 
+	 * @param l
+	 *            The listener that will get registered to this selection.
+	 */
+	public void addSelectionListener(SelectionListener l) {
+		if (l == null) {
+			return;
+		}
+
+		if (listeners == null) {
+			listeners = new LinkedList<>();
+		}
+
+		listeners.add(l);
+	}
+
+	/**
+	 * Removes the given {@link SelectionListener} from this selection. If
+	 * there is no such listener registered, nothing happens.
+	 * 
+	 * @param l
+	 *            The listener that will get removed from this selection.
+	 */
+	public void removeSelectionListener(SelectionListener l) {
+		if (l == null || listeners == null) {
+			return;
+		}
+
+		Iterator<SelectionListener> it = listeners.iterator();
+		while (it.hasNext()) {
+			SelectionListener listener = it.next();
+			if (listener.equals(l)) {
+				it.remove();
+				return;
+			}
+		}
+	}
+
+	@Override
+	public void objectsAdded(DrawingModel source, int index0, int index1) {
+		if (index0 >= selected.length()) {
+			return;
+		}
+
+		BitSet newSelected = selected.get(0, index0);
+		BitSet moved = selected.get(index0, selected.length());
+		int shift = index1 - index0 + 1;
+		for (int i = moved.nextSetBit(0); i >= 0; i = moved.nextSetBit(i + 1)) {
+			newSelected.set(index0 + shift + i);
+		}
+		update(newSelected);
+	}
+
+	@Override
+	public void objectsRemoved(DrawingModel source, int index0, int index1) {
+		if (index0 >= selected.length()) {
+			return;
+		}
+
+		BitSet newSelected = selected.get(0, index0);
+		BitSet moved = selected.get(index1 + 1, Math.max(index1 + 1, selected.length()));
+		for (int i = moved.nextSetBit(0); i >= 0; i = moved.nextSetBit(i + 1)) {
+			newSelected.set(index0 + i);
+		}
+		update(newSelected);
+	}
+
+	@Override
+	public void objectsChanged(DrawingModel source, int index0, int index1) {
+	}
+
+	/**
+	 * Method replaces the selection by the given one, and notifies the
+	 * listeners once if anything has changed.
+	 * 
+	 * @param newSelected
+	 *            The new selection, which is not copied.
+	 */
+	private void update(BitSet newSelected) {
+		BitSet difference = (BitSet) selected.clone();
+		difference.xor(newSelected);
+		selected = newSelected;
+		if (difference.isEmpty() || listeners == null) {
+			return;
+		}
+
+		int index0 = difference.nextSetBit(0);
+		int index1 = difference.length() - 1;
+		for (SelectionListener listener : listeners) {
+			listener.selectionChanged(this, index0, index1);
+		}
+	}
+}
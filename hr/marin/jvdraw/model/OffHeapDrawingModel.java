@@ -0,0 +1,186 @@
+package hr.marin.jvdraw.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * A {@link RecordDrawingModel} that stores the records outside of the Java
+ * heap, so that documents with tens of millions of objects do not need a
+ * heap large enough to hold them.
+ * </p>
+ * <p>
+ * The records have a fixed width of {@link #RECORD_SIZE} bytes: the type in
+ * the first byte, padded to four bytes, followed by the fields. They are kept
+ * in segments of {@link #SEGMENT_RECORDS} records, which are either direct
+ * {@link ByteBuffer}s or regions of a memory-mapped file. A mapped file lets
+ * the operating system page the records in and out of memory as they are
+ * used. New segments are allocated as the model grows, and existing records
+ * are never moved.
+ * </p>
+ * <p>
+ * Only the records are stored off the heap; the spatial index of the model
+ * still lives on the heap.
+ * </p>
+ * <p>
+ * A model that is no longer needed should be closed, which closes its file
+ * and drops its segments. A closed model must not be used anymore; reading or
+ * writing its records throws an {@link IllegalStateException}. The mapped
+ * regions of the file are only released once they are garbage collected, so
+ * some platforms do not allow deleting the file right after the model has
+ * been closed.
+ * </p>
+ *
+ * @author Marin
+ *
+ */
+public class OffHeapDrawingModel extends RecordDrawingModel implements Closeable {
+	/**
+	 * The size of a single record in bytes.
+	 */
+	private static final int RECORD_SIZE = 4 + 4 * FIELD_COUNT;
+	/**
+	 * The base two logarithm of the number of records in a segment.
+	 */
+	private static final int SEGMENT_SHIFT = 16;
+	/**
+	 * The number of records in a segment.
+	 */
+	private static final int SEGMENT_RECORDS = 1 << SEGMENT_SHIFT;
+
+	/**
+	 * The file the segments are mapped from, or null if they are direct
+	 * buffers.
+	 */
+	private FileChannel channel;
+	/**
+	 * The segments holding the records, or null if the model is closed.
+	 */
+	private List<ByteBuffer> segments;
+
+	/**
+	 * Creates a new empty {@link OffHeapDrawingModel} that keeps its records
+	 * in direct buffers.
+	 */
+	public OffHeapDrawingModel() {
+		segments = new ArrayList<>();
+	}
+
+	/**
+	 * Creates a new empty {@link OffHeapDrawingModel} that keeps its records
+	 * in the given file, mapped into memory. The file is created if it does
+	 * not exist, and its previous contents are discarded. It serves as
+	 * scratch space only, and is not a document that can be opened. The file
+	 * is not deleted when the model is closed.
+	 *
+	 * @param file
+	 *            The file the records are kept in.
+	 * @throws IOException
+	 *             If the file could not be opened.
+	 */
+	public OffHeapDrawingModel(Path file) throws IOException {
+		this();
+		channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws UncheckedIOException
+	 *             If the mapped file could not be extended.
+	 * @throws IllegalStateException
+	 *             If the model is closed.
+	 */
+	@Override
+	protected void ensureCapacity(int capacity) {
+		if (segments == null) {
+			throw new IllegalStateException("The model is closed.");
+		}
+		while ((long) segments.size() * SEGMENT_RECORDS < capacity) {
+			ByteBuffer segment;
+			if (channel == null) {
+				segment = ByteBuffer.allocateDirect(SEGMENT_RECORDS * RECORD_SIZE);
+			} else {
+				long position = (long) segments.size() * SEGMENT_RECORDS * RECORD_SIZE;
+				try {
+					segment = channel.map(FileChannel.MapMode.READ_WRITE, position, SEGMENT_RECORDS * RECORD_SIZE);
+				} catch (IOException e) {
+					throw new UncheckedIOException("The records file could not be extended.", e);
+				}
+			}
+			segments.add(segment.order(ByteOrder.nativeOrder()));
+		}
+	}
+
+	/**
+	 * Closes the file the records are kept in, if any, and drops the
+	 * segments, so their memory can be reclaimed. Closing an already closed
+	 * model has no effect.
+	 *
+	 * @throws IOException
+	 *             If the file could not be closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		segments = null;
+		if (channel != null) {
+			channel.close();
+		}
+	}
+
+	@Override
+	protected byte getType(int index) {
+		return segment(index).get(offset(index));
+	}
+
+	@Override
+	protected void setType(int index, byte type) {
+		segment(index).put(offset(index), type);
+	}
+
+	@Override
+	protected int getField(int index, int field) {
+		return segment(index).getInt(offset(index) + 4 + 4 * field);
+	}
+
+	@Override
+	protected void setField(int index, int field, int value) {
+		segment(index).putInt(offset(index) + 4 + 4 * field, value);
+	}
+
+	/**
+	 * Gets the segment holding the record with the given index.
+	 *
+	 * @param index
+	 *            The index of the record.
+	 * @return The segment holding the record.
+	 * @throws IllegalStateException
+	 *             If the model is closed.
+	 */
+	private ByteBuffer segment(int index) {
+		if (segments == null) {
+			throw new IllegalStateException("The model is closed.");
+		}
+		return segments.get(index >>> SEGMENT_SHIFT);
+	}
+
+	/**
+	 * Gets the offset of the record with the given index within its segment.
+	 *
+	 * @param index
+	 *            The index of the record.
+	 * @return The offset of the record in bytes.
+	 */
+	private static int offset(int index) {
+		return (index & (SEGMENT_RECORDS - 1)) * RECORD_SIZE;
+	}
+}
@@ -0,0 +1,465 @@
+package hr.marin.jvdraw.model;
+
+import java.awt.Color;
+
+import hr.marin.jvdraw.geometric.Circle;
+import hr.marin.jvdraw.geometric.ColorPalette;
+import hr.marin.jvdraw.geometric.GeometricalObject;
+import hr.marin.jvdraw.geometric.Line;
+
+/**
+ * <p>
+ * A skeletal implementation of the {@link DrawingModel} interface for models
+ * that store every object as a fixed record of primitive fields, instead of
+ * as an individual {@link GeometricalObject}. A record holds the type of the
+ * object and six <code>int</code> fields: the first point, the second point or
+ * the radius, and the packed ARGB outline and fill colors.
+ * </p>
+ * <p>
+ * The model does not keep the added objects, but copies their geometry and
+ * colors into a new record, so later changes of an added object are not
+ * reflected in the model. Instead, {@link #getObject(int)} creates a
+ * lightweight {@link Line} or {@link Circle} view of the stored record. Views
+ * read and write the record directly, so changing a view changes the model
+ * and notifies its listeners. Two views of the same object are equal, though
+ * not identical.
+ * </p>
+ * <p>
+ * Subclasses only decide where the records are kept.
+ * </p>
+ *
+ * @author Marin
+ *
+ */
+public abstract class RecordDrawingModel extends AbstractDrawingModel {
+	/**
+	 * The type of a line.
+	 */
+	protected static final byte LINE = 0;
+	/**
+	 * The type of an empty circle.
+	 */
+	protected static final byte CIRCLE = 1;
+	/**
+	 * The type of a filled circle.
+	 */
+	protected static final byte FILLED_CIRCLE = 2;
+	/**
+	 * The field holding the x coordinate of the start of a line or the center
+	 * of a circle.
+	 */
+	protected static final int X1 = 0;
+	/**
+	 * The field holding the y coordinate of the start of a line or the center
+	 * of a circle.
+	 */
+	protected static final int Y1 = 1;
+	/**
+	 * The field holding the x coordinate of the end of a line or the radius
+	 * of a circle.
+	 */
+	protected static final int X2 = 2;
+	/**
+	 * The field holding the y coordinate of the end of a line, unused for
+	 * circles.
+	 */
+	protected static final int Y2 = 3;
+	/**
+	 * The field holding the ARGB foreground color of an object.
+	 */
+	protected static final int OUTLINE = 4;
+	/**
+	 * The field holding the ARGB fill color of a filled circle, unused for
+	 * other objects.
+	 */
+	protected static final int FILL = 5;
+	/**
+	 * The number of <code>int</code> fields of a record.
+	 */
+	protected static final int FIELD_COUNT = 6;
+
+	/**
+	 * The number of stored objects.
+	 */
+	private int size;
+
+	@Override
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * {@inheritDoc} The returned object is a new view of the stored record.
+	 */
+	@Override
+	public GeometricalObject getObject(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size + ".");
+		}
+		return (getType(index) == LINE) ? new LineView(this, index) : new CircleView(this, index);
+	}
+
+	/**
+	 * {@inheritDoc} The geometry and colors of the object are copied into a
+	 * new record. If the given object is null or a view of an object already
+	 * stored in this model, the method does nothing.
+	 *
+	 * @throws IllegalArgumentException
+	 *             If the object is neither a {@link Line} nor a
+	 *             {@link Circle}, or it has no foreground color.
+	 */
+	@Override
+	public void add(GeometricalObject object) {
+		if (object == null || isView(object)) {
+			return;
+		}
+		if (object.getForegroundColor() == null) {
+			throw new IllegalArgumentException("The object has no foreground color: " + object);
+		}
+
+		int index = size;
+		if (object instanceof Line) {
+			Line line = (Line) object;
+			int startX = line.getStartX();
+			int startY = line.getStartY();
+			int endX = line.getEndX();
+			int endY = line.getEndY();
+			ensureCapacity(index + 1);
+			setType(index, LINE);
+			setField(index, X1, startX);
+			setField(index, Y1, startY);
+			setField(index, X2, endX);
+			setField(index, Y2, endY);
+			setField(index, FILL, 0);
+		} else if (object instanceof Circle) {
+			Circle circle = (Circle) object;
+			int centerX = circle.getCenterX();
+			int centerY = circle.getCenterY();
+			Color background = circle.getBackgroundColor();
+			ensureCapacity(index + 1);
+			setType(index, (background == null) ? CIRCLE : FILLED_CIRCLE);
+			setField(index, X1, centerX);
+			setField(index, Y1, centerY);
+			setField(index, X2, circle.getRadius());
+			setField(index, Y2, 0);
+			setField(index, FILL, (background == null) ? 0 : background.getRGB());
+		} else {
+			throw new IllegalArgumentException("Unsupported geometric object: " + object);
+		}
+		setField(index, OUTLINE, object.getForegroundColor().getRGB());
+		size++;
+
+		fireObjectAdded(index, object.getBoundingRect());
+	}
+
+	/**
+	 * Makes sure there is room for the given number of records.
+	 *
+	 * @param capacity
+	 *            The required number of records.
+	 */
+	protected abstract void ensureCapacity(int capacity);
+
+	/**
+	 * Gets the type of the record with the given index.
+	 *
+	 * @param index
+	 *            The index of the record.
+	 * @return The type of the record.
+	 */
+	protected abstract byte getType(int index);
+
+	/**
+	 * Sets the type of the record with the given index.
+	 *
+	 * @param index
+	 *            The index of the record.
+	 * @param type
+	 *            The new type of the record.
+	 */
+	protected abstract void setType(int index, byte type);
+
+	/**
+	 * Gets a field of the record with the given index.
+	 *
+	 * @param index
+	 *            The index of the record.
+	 * @param field
+	 *            The field, one of {@link #X1} to {@link #FILL}.
+	 * @return The value of the field.
+	 */
+	protected abstract int getField(int index, int field);
+
+	/**
+	 * Sets a field of the record with the given index.
+	 *
+	 * @param index
+	 *            The index of the record.
+	 * @param field
+	 *            The field, one of {@link #X1} to {@link #FILL}.
+	 * @param value
+	 *            The new value of the field.
+	 */
+	protected abstract void setField(int index, int field, int value);
+
+	/**
+	 * Method checks whether the given object is a view of an object stored in
+	 * this model.
+	 *
+	 * @param object
+	 *            The object to check.
+	 * @return True if the object is a view of this model, false otherwise.
+	 */
+	private boolean isView(GeometricalObject object) {
+		if (object instanceof LineView) {
+			return ((LineView) object).model == this;
+		}
+		if (object instanceof CircleView) {
+			return ((CircleView) object).model == this;
+		}
+		return false;
+	}
+
+	/**
+	 * A view of a line stored in a {@link RecordDrawingModel}.
+	 *
+	 * @author Marin
+	 *
+	 */
+	private static class LineView extends Line {
+		/**
+		 * The model the line is stored in.
+		 */
+		private final RecordDrawingModel model;
+		/**
+		 * The index of the line in the model.
+		 */
+		private final int index;
+
+		/**
+		 * Creates a new view of the line with the given index.
+		 *
+		 * @param model
+		 *            The model the line is stored in.
+		 * @param index
+		 *            The index of the line in the model.
+		 */
+		LineView(RecordDrawingModel model, int index) {
+			super(0, 0, 0, 0, null);
+			this.model = model;
+			this.index = index;
+		}
+
+		@Override
+		public int getStartX() {
+			return model.getField(index, X1);
+		}
+
+		@Override
+		public int getStartY() {
+			return model.getField(index, Y1);
+		}
+
+		@Override
+		public void setStart(int x, int y) {
+			model.setField(index, X1, x);
+			model.setField(index, Y1, y);
+			changed();
+		}
+
+		@Override
+		public int getEndX() {
+			return model.getField(index, X2);
+		}
+
+		@Override
+		public int getEndY() {
+			return model.getField(index, Y2);
+		}
+
+		@Override
+		public void setEnd(int x, int y) {
+			model.setField(index, X2, x);
+			model.setField(index, Y2, y);
+			changed();
+		}
+
+		@Override
+		public Color getForegroundColor() {
+			return ColorPalette.get(model.getField(index, OUTLINE));
+		}
+
+		/**
+		 * {@inheritDoc}
+		 *
+		 * @throws IllegalArgumentException
+		 *             If the given color is null.
+		 */
+		@Override
+		public void setForegroundColor(Color foregroundColor) {
+			if (foregroundColor == null) {
+				throw new IllegalArgumentException("The object has no foreground color: " + this);
+			}
+			model.setField(index, OUTLINE, foregroundColor.getRGB());
+			changed();
+		}
+
+		/**
+		 * {@inheritDoc} Lines stored in a {@link RecordDrawingModel} have no
+		 * background color.
+		 */
+		@Override
+		public Color getBackgroundColor() {
+			return null;
+		}
+
+		/**
+		 * Lines stored in a {@link RecordDrawingModel} have no background
+		 * color, so the given color is ignored and
+		 * {@link #getBackgroundColor()} keeps returning null.
+		 */
+		@Override
+		public void setBackgroundColor(Color backgroundColor) {
+		}
+
+		/**
+		 * Method notifies the model and the listeners of this view that the
+		 * line has changed.
+		 */
+		private void changed() {
+			model.fireObjectChanged(index, getBoundingRect());
+			fireListeners();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof LineView)) {
+				return false;
+			}
+			LineView other = (LineView) obj;
+			return model == other.model && index == other.index;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(model) * 31 + index;
+		}
+	}
+
+	/**
+	 * A view of a circle stored in a {@link RecordDrawingModel}.
+	 *
+	 * @author Marin
+	 *
+	 */
+	private static class CircleView extends Circle {
+		/**
+		 * The model the circle is stored in.
+		 */
+		private final RecordDrawingModel model;
+		/**
+		 * The index of the circle in the model.
+		 */
+		private final int index;
+
+		/**
+		 * Creates a new view of the circle with the given index.
+		 *
+		 * @param model
+		 *            The model the circle is stored in.
+		 * @param index
+		 *            The index of the circle in the model.
+		 */
+		CircleView(RecordDrawingModel model, int index) {
+			super(0, 0, 0, null, null);
+			this.model = model;
+			this.index = index;
+		}
+
+		@Override
+		public int getCenterX() {
+			return model.getField(index, X1);
+		}
+
+		@Override
+		public int getCenterY() {
+			return model.getField(index, Y1);
+		}
+
+		@Override
+		public void setCenter(int x, int y) {
+			model.setField(index, X1, x);
+			model.setField(index, Y1, y);
+			changed();
+		}
+
+		@Override
+		public int getRadius() {
+			return model.getField(index, X2);
+		}
+
+		@Override
+		public void setRadius(int radius) {
+			if (radius < 0) {
+				throw new IllegalArgumentException("Radius must be nonnegative.");
+			}
+			model.setField(index, X2, radius);
+			changed();
+		}
+
+		@Override
+		public Color getForegroundColor() {
+			return ColorPalette.get(model.getField(index, OUTLINE));
+		}
+
+		/**
+		 * {@inheritDoc}
+		 *
+		 * @throws IllegalArgumentException
+		 *             If the given color is null.
+		 */
+		@Override
+		public void setForegroundColor(Color foregroundColor) {
+			if (foregroundColor == null) {
+				throw new IllegalArgumentException("The object has no foreground color: " + this);
+			}
+			model.setField(index, OUTLINE, foregroundColor.getRGB());
+			changed();
+		}
+
+		@Override
+		public Color getBackgroundColor() {
+			return (model.getType(index) == FILLED_CIRCLE) ? ColorPalette.get(model.getField(index, FILL)) : null;
+		}
+
+		@Override
+		public void setBackgroundColor(Color backgroundColor) {
+			model.setType(index, (backgroundColor == null) ? CIRCLE : FILLED_CIRCLE);
+			model.setField(index, FILL, (backgroundColor == null) ? 0 : backgroundColor.getRGB());
+			changed();
+		}
+
+		/**
+		 * Method notifies the model and the listeners of this view that the
+		 * circle has changed.
+		 */
+		private void changed() {
+			model.fireObjectChanged(index, getBoundingRect());
+			fireListeners();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof CircleView)) {
+				return false;
+			}
+			CircleView other = (CircleView) obj;
+			return model == other.model && index == other.index;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(model) * 31 + index;
+		}
+	}
+}
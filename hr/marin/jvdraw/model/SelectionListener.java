@@ -0,0 +1,27 @@
+package hr.marin.jvdraw.model;
+
+/**
+ * <p>
+ * An interface that specifies the methods that a class must implement in order
+ * to be a selection listener.<br>
+ * Such a listener can register itself to a {@link DrawingSelection} and get
+ * notified each time the selection is changed.
+ * </p>
+ * 
+ * @author Marin
+ *
+ */
+public interface SelectionListener {
+	/**
+	 * Called once for every change of the listened selection, however many
+	 * objects were selected or deselected by it.
+	 * 
+	 * @param source
+	 *            The listened selection.
+	 * @param index0
+	 *            The smallest index whose selection state was changed.
+	 * @param index1
+	 *            The largest index whose selection state was changed.
+	 */
+	public void selectionChanged(DrawingSelection source, int index0, int index1);
+}
@@ -0,0 +1,470 @@
+package hr.marin.jvdraw.model;
+
+import java.awt.Rectangle;
+import java.util.Arrays;
+
+import hr.marin.jvdraw.geometric.GeometricalObject;
+
+/**
+ * <p>
+ * A spatial index over the bounding rectangles of the {@link GeometricalObject}
+ * s stored in a drawing model. Objects are identified by their index in the
+ * model.
+ * </p>
+ * <p>
+ * The index is a loose quadtree. Every node accepts the objects whose bounding
+ * rectangles lie in its loose region, which is its square region extended by
+ * half of its size on every side, and every object is stored in the deepest
+ * node that accepts it and contains the center of its bounding rectangle.
+ * Unlike in a plain quadtree, small objects that cross the boundary between
+ * two quadrants still sink to the small nodes near them, instead of piling up
+ * in the large nodes that every query has to scan. The root grows on demand,
+ * so there is no limit on the coordinates that can be stored.
+ * Bounding rectangles are regarded as closed, i.e. a rectangle
+ * <code>(x, y, w, h)</code> covers all points from <code>(x, y)</code> up to
+ * and including <code>(x + w, y + h)</code>, the same way a line or an oval is
+ * rasterized.
+ * </p>
+ * <p>
+ * The index also keeps the union of all the bounding rectangles. It is
+ * extended as objects are added or grow, and recomputed only when it is asked
+ * for after an object on its edge has moved inwards.
+ * </p>
+ * <p>
+ * Queries do not modify the index and can be run from several threads at once,
+ * as long as nobody is modifying the index at the same time.
+ * </p>
+ *
+ * @author Marin
+ *
+ */
+class SpatialIndex {
+	/**
+	 * The number of objects a leaf can hold before it is split into quadrants.
+	 */
+	private static final int NODE_CAPACITY = 16;
+	/**
+	 * The size of the smallest node. Nodes of this size are never split.
+	 */
+	private static final long MIN_NODE_SIZE = 16;
+	/**
+	 * The size of the root node of an empty index.
+	 */
+	private static final long INITIAL_SIZE = 1024;
+
+	/**
+	 * The root node of the tree.
+	 */
+	private Node root;
+	/**
+	 * The indexed bounding boxes, four values (min x, min y, max x, max y) per
+	 * object.
+	 */
+	private int[] boxes;
+	/**
+	 * The node that currently holds each object, or null if the object is not
+	 * indexed.
+	 */
+	private Node[] owners;
+	/**
+	 * The position of each object within the item array of its owner node.
+	 */
+	private int[] slots;
+	/**
+	 * The number of indexed objects.
+	 */
+	private int size;
+	/**
+	 * The union of all the bounding boxes (min x, min y, max x, max y), valid
+	 * unless {@link #boundsStale} is set.
+	 */
+	private int[] bounds;
+	/**
+	 * Whether {@link #bounds} has to be recomputed because an object on its
+	 * edge has moved inwards.
+	 */
+	private boolean boundsStale;
+
+	/**
+	 * Creates a new empty {@link SpatialIndex}.
+	 */
+	SpatialIndex() {
+		root = new Node(-INITIAL_SIZE / 2, -INITIAL_SIZE / 2, INITIAL_SIZE);
+		boxes = new int[64];
+		owners = new Node[16];
+		slots = new int[16];
+		bounds = new int[] { Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE };
+	}
+
+	/**
+	 * Adds the object with the given index to the spatial index.
+	 *
+	 * @param id
+	 *            The index of the object in the model.
+	 * @param rect
+	 *            The bounding rectangle of the object.
+	 */
+	void insert(int id, Rectangle rect) {
+		ensureCapacity(id + 1);
+		int b = id * 4;
+		boxes[b] = rect.x;
+		boxes[b + 1] = rect.y;
+		boxes[b + 2] = rect.x + rect.width;
+		boxes[b + 3] = rect.y + rect.height;
+		size = Math.max(size, id + 1);
+		if (!boundsStale) {
+			extendBounds(b);
+		}
+
+		while (!root.contains(boxes, b)) {
+			grow(boxes[b], boxes[b + 1]);
+		}
+
+		Node node = root;
+		while (node.children != null) {
+			Node child = node.childContaining(boxes, b);
+			if (child == null) {
+				break;
+			}
+			node = child;
+		}
+		node.add(id);
+		if (node.children == null && node.count > NODE_CAPACITY && node.size > MIN_NODE_SIZE) {
+			node.split();
+		}
+	}
+
+	/**
+	 * Updates the bounding rectangle of an already indexed object.
+	 *
+	 * @param id
+	 *            The index of the object in the model.
+	 * @param rect
+	 *            The new bounding rectangle of the object.
+	 */
+	void update(int id, Rectangle rect) {
+		int b = id * 4;
+		if (boxes[b] == rect.x && boxes[b + 1] == rect.y && boxes[b + 2] == rect.x + rect.width
+				&& boxes[b + 3] == rect.y + rect.height) {
+			return;
+		}
+		boolean leavesEdge = (boxes[b] == bounds[0] && rect.x > bounds[0])
+				|| (boxes[b + 1] == bounds[1] && rect.y > bounds[1])
+				|| (boxes[b + 2] == bounds[2] && rect.x + rect.width < bounds[2])
+				|| (boxes[b + 3] == bounds[3] && rect.y + rect.height < bounds[3]);
+		if (leavesEdge) {
+			boundsStale = true;
+		}
+
+		owners[id].remove(id);
+		insert(id, rect);
+	}
+
+	/**
+	 * Gets the indexed bounding rectangle of the object with the given index.
+	 *
+	 * @param id
+	 *            The index of the object in the model.
+	 * @return The indexed bounding rectangle of the object.
+	 */
+	Rectangle getBoundingRect(int id) {
+		int b = id * 4;
+		return new Rectangle(boxes[b], boxes[b + 1], boxes[b + 2] - boxes[b], boxes[b + 3] - boxes[b + 1]);
+	}
+
+	/**
+	 * Gets the smallest rectangle that contains the bounding rectangles of all
+	 * the indexed objects. If the union is stale, it is recomputed in a single
+	 * pass over the indexed boxes, so unlike the queries this method must not
+	 * be called while another thread is using the index.
+	 *
+	 * @return The union of all the bounding rectangles, or null if the index
+	 *         is empty.
+	 */
+	Rectangle getBounds() {
+		if (size == 0) {
+			return null;
+		}
+		if (boundsStale) {
+			bounds[0] = Integer.MAX_VALUE;
+			bounds[1] = Integer.MAX_VALUE;
+			bounds[2] = Integer.MIN_VALUE;
+			bounds[3] = Integer.MIN_VALUE;
+			for (int b = 0, n = size * 4; b < n; b += 4) {
+				extendBounds(b);
+			}
+			boundsStale = false;
+		}
+		return new Rectangle(bounds[0], bounds[1], bounds[2] - bounds[0], bounds[3] - bounds[1]);
+	}
+
+	/**
+	 * Finds all the objects whose bounding rectangles intersect the given
+	 * closed area.
+	 *
+	 * @param minX
+	 *            The smallest x coordinate of the area.
+	 * @param minY
+	 *            The smallest y coordinate of the area.
+	 * @param maxX
+	 *            The largest x coordinate of the area.
+	 * @param maxY
+	 *            The largest y coordinate of the area.
+	 * @return The indices of the found objects, sorted in ascending order.
+	 */
+	int[] query(int minX, int minY, int maxX, int maxY) {
+		int[] result = new int[16];
+		int size = 0;
+
+		Node[] stack = new Node[64];
+		int top = 0;
+		stack[top++] = root;
+		while (top > 0) {
+			Node node = stack[--top];
+			if (!node.intersects(minX, minY, maxX, maxY)) {
+				continue;
+			}
+
+			boolean covered = node.coveredBy(minX, minY, maxX, maxY);
+			if (size + node.count > result.length) {
+				result = Arrays.copyOf(result, Math.max(result.length * 2, size + node.count));
+			}
+			for (int i = 0; i < node.count; i++) {
+				int id = node.items[i];
+				int b = id * 4;
+				if (covered || (boxes[b] <= maxX && boxes[b + 2] >= minX && boxes[b + 1] <= maxY && boxes[b + 3] >= minY)) {
+					result[size++] = id;
+				}
+			}
+
+			if (node.children != null) {
+				if (top + 4 > stack.length) {
+					stack = Arrays.copyOf(stack, stack.length * 2);
+				}
+				for (Node child : node.children) {
+					stack[top++] = child;
+				}
+			}
+		}
+
+		result = Arrays.copyOf(result, size);
+		Arrays.sort(result);
+		return result;
+	}
+
+	/**
+	 * Makes the root twice as large, in the direction of the given point, while
+	 * keeping the old root as one of its quadrants.
+	 *
+	 * @param x
+	 *            The x coordinate of the point the root has to grow towards.
+	 * @param y
+	 *            The y coordinate of the point the root has to grow towards.
+	 */
+	private void grow(int x, int y) {
+		long size = root.size;
+		long newX = (x < root.x) ? root.x - size : root.x;
+		long newY = (y < root.y) ? root.y - size : root.y;
+
+		Node newRoot = new Node(newX, newY, size * 2);
+		newRoot.children = new Node[4];
+		for (int i = 0; i < 4; i++) {
+			long childX = newX + ((i & 1) == 0 ? 0 : size);
+			long childY = newY + ((i & 2) == 0 ? 0 : size);
+			newRoot.children[i] = (childX == root.x && childY == root.y) ? root : new Node(childX, childY, size);
+		}
+		root = newRoot;
+	}
+
+	/**
+	 * Extends the union of the bounding boxes by the given box.
+	 *
+	 * @param b
+	 *            The offset of the box in {@link #boxes}.
+	 */
+	private void extendBounds(int b) {
+		bounds[0] = Math.min(bounds[0], boxes[b]);
+		bounds[1] = Math.min(bounds[1], boxes[b + 1]);
+		bounds[2] = Math.max(bounds[2], boxes[b + 2]);
+		bounds[3] = Math.max(bounds[3], boxes[b + 3]);
+	}
+
+	/**
+	 * Makes sure the per-object arrays can hold the given number of objects.
+	 *
+	 * @param capacity
+	 *            The required number of objects.
+	 */
+	private void ensureCapacity(int capacity) {
+		if (capacity <= owners.length) {
+			return;
+		}
+
+		int newCapacity = Math.max(capacity, owners.length * 2);
+		owners = Arrays.copyOf(owners, newCapacity);
+		slots = Arrays.copyOf(slots, newCapacity);
+		boxes = Arrays.copyOf(boxes, newCapacity * 4);
+	}
+
+	/**
+	 * A single node of the quadtree, covering the square region
+	 * <code>[x, x + size) x [y, y + size)</code>.
+	 *
+	 * @author Marin
+	 *
+	 */
+	private class Node {
+		/**
+		 * The smallest x coordinate of the region.
+		 */
+		final long x;
+		/**
+		 * The smallest y coordinate of the region.
+		 */
+		final long y;
+		/**
+		 * The width and height of the region.
+		 */
+		final long size;
+		/**
+		 * The four quadrants of this node, or null if this node is a leaf.
+		 */
+		Node[] children;
+		/**
+		 * The indices of the objects stored in this node.
+		 */
+		int[] items = new int[4];
+		/**
+		 * The number of objects stored in this node.
+		 */
+		int count;
+
+		/**
+		 * Creates a new leaf node covering the given region.
+		 *
+		 * @param x
+		 *            The smallest x coordinate of the region.
+		 * @param y
+		 *            The smallest y coordinate of the region.
+		 * @param size
+		 *            The width and height of the region.
+		 */
+		Node(long x, long y, long size) {
+			this.x = x;
+			this.y = y;
+			this.size = size;
+		}
+
+		/**
+		 * Stores the object with the given index in this node.
+		 *
+		 * @param id
+		 *            The index of the object.
+		 */
+		void add(int id) {
+			if (count == items.length) {
+				items = Arrays.copyOf(items, count * 2);
+			}
+			owners[id] = this;
+			slots[id] = count;
+			items[count++] = id;
+		}
+
+		/**
+		 * Removes the object with the given index from this node.
+		 *
+		 * @param id
+		 *            The index of the object.
+		 */
+		void remove(int id) {
+			int slot = slots[id];
+			int last = items[--count];
+			items[slot] = last;
+			slots[last] = slot;
+			owners[id] = null;
+		}
+
+		/**
+		 * Splits this leaf into four quadrants and moves every object that a
+		 * quadrant accepts into it.
+		 */
+		void split() {
+			long half = size / 2;
+			children = new Node[4];
+			for (int i = 0; i < 4; i++) {
+				children[i] = new Node(x + ((i & 1) == 0 ? 0 : half), y + ((i & 2) == 0 ? 0 : half), half);
+			}
+
+			int[] old = items;
+			int oldCount = count;
+			items = new int[4];
+			count = 0;
+			for (int i = 0; i < oldCount; i++) {
+				int id = old[i];
+				Node child = childContaining(boxes, id * 4);
+				(child == null ? this : child).add(id);
+			}
+		}
+
+		/**
+		 * Finds the quadrant of this node that contains the center of the
+		 * given box, if its loose region also contains the whole box.
+		 *
+		 * @param boxes
+		 *            The array holding the box.
+		 * @param b
+		 *            The offset of the box in the array.
+		 * @return The quadrant accepting the box, or null if there is none.
+		 */
+		Node childContaining(int[] boxes, int b) {
+			long half = size / 2;
+			long centerX = ((long) boxes[b] + boxes[b + 2]) >> 1;
+			long centerY = ((long) boxes[b + 1] + boxes[b + 3]) >> 1;
+
+			int i = (centerX < x + half ? 0 : 1) + (centerY < y + half ? 0 : 2);
+			Node child = children[i];
+			long slack = child.size / 2;
+			if (boxes[b] >= child.x - slack && boxes[b + 1] >= child.y - slack
+					&& boxes[b + 2] < child.x + child.size + slack && boxes[b + 3] < child.y + child.size + slack) {
+				return child;
+			}
+			return null;
+		}
+
+		/**
+		 * Checks whether this node fully contains the given box.
+		 *
+		 * @param boxes
+		 *            The array holding the box.
+		 * @param b
+		 *            The offset of the box in the array.
+		 * @return True if the box is inside the region of this node.
+		 */
+		boolean contains(int[] boxes, int b) {
+			return boxes[b] >= x && boxes[b + 1] >= y && boxes[b + 2] < x + size && boxes[b + 3] < y + size;
+		}
+
+		/**
+		 * Checks whether the loose region of this node intersects the given
+		 * closed area.
+		 *
+		 * @return True if the loose region and the area intersect.
+		 */
+		boolean intersects(int minX, int minY, int maxX, int maxY) {
+			long slack = size / 2;
+			return x - slack <= maxX && x + size + slack > minX && y - slack <= maxY && y + size + slack > minY;
+		}
+
+		/**
+		 * Checks whether the loose region of this node lies fully inside the
+		 * given closed area.
+		 *
+		 * @return True if the area covers the loose region.
+		 */
+		boolean coveredBy(int minX, int minY, int maxX, int maxY) {
+			long slack = size / 2;
+			return x - slack >= minX && x + size + slack - 1 <= maxX && y - slack >= minY
+					&& y + size + slack - 1 <= maxY;
+		}
+	}
+}
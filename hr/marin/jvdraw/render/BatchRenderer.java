@@ -0,0 +1,478 @@
+package hr.marin.jvdraw.render;
+
+import hr.marin.jvdraw.geometric.Circle;
+import hr.marin.jvdraw.geometric.GeometricalObject;
+import hr.marin.jvdraw.geometric.Line;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * A renderer that groups the primitives of the painted objects by color into
+ * batches, and draws every batch with a single color change of the
+ * {@link Graphics2D} object, instead of changing the color for every
+ * primitive. The outlines and the fills of circles are collected into a
+ * {@link Path2D} that is stroked or filled with a single call.
+ * </p>
+ * <p>
+ * Line segments are kept in a separate array of the batch and drawn with
+ * {@link Graphics2D#drawLine(int, int, int, int)}. A stroked path is clipped
+ * to the bounds of the target less exactly than a line is, so stroking the
+ * segments as a path would make long lines step at the edges of the canvas
+ * tiles.
+ * </p>
+ * <p>
+ * The objects must be passed to the renderer in their z-order. A primitive is
+ * added to the open batch of its color and kind (stroke or fill), but every
+ * open batch of a different color or kind that it overlaps is drawn first.
+ * The only exception is the outline of a filled circle, which does not force
+ * out the fill batch its own disk has just been added to. Open batches of the
+ * same kind therefore never overlap each other, and where an open fill batch
+ * overlaps an open stroke batch, the fills are always the older primitives.
+ * The fill batches are drawn before any stroke batch they overlap, so the
+ * result looks the same as if the objects had been painted one by one.
+ * </p>
+ * <p>
+ * The overlap is tracked on a coarse grid of {@link #CELL_SIZE} device
+ * pixels: every batch remembers the cells its primitives cover, so a batch
+ * that spreads over the target does not block every primitive that lands in
+ * its gaps. Cells outside of the grid are folded onto its border cells.
+ * </p>
+ * <p>
+ * Objects other than {@link Line}s and {@link Circle}s are painted directly,
+ * after all the open batches have been drawn.
+ * </p>
+ *
+ * @author Marin
+ *
+ */
+public class BatchRenderer {
+	/**
+	 * The largest number of open batches. Once it is exceeded, the oldest open
+	 * batch is drawn.
+	 */
+	private static final int MAX_OPEN_BATCHES = 16;
+	/**
+	 * The kind of the batches that are stroked.
+	 */
+	private static final int STROKE = 0;
+	/**
+	 * The kind of the batches that are filled.
+	 */
+	private static final int FILL = 1;
+	/**
+	 * The initial capacity of the segment array of a batch, in coordinates.
+	 */
+	private static final int INITIAL_SEGMENTS = 64;
+	/**
+	 * The width and height of a cell of the overlap grid, in device pixels.
+	 */
+	private static final int CELL_SIZE = 16;
+	/**
+	 * The number of cells in a row and in a column of the overlap grid.
+	 */
+	private static final int GRID_SIZE = 64;
+	/**
+	 * The distance in device pixels by which a primitive can reach past its
+	 * bounding rectangle, since a stroke is always at least a device pixel
+	 * wide.
+	 */
+	private static final double PADDING = 2;
+
+	/**
+	 * The graphics object the batches are drawn with.
+	 */
+	private Graphics2D g;
+	/**
+	 * The transform from the coordinates of the objects to device pixels.
+	 */
+	private AffineTransform transform;
+	/**
+	 * The open batches, keyed by their color and kind, from the oldest to the
+	 * newest.
+	 */
+	private Map<Long, Batch> batches;
+	/**
+	 * The drawn batches that can be reused.
+	 */
+	private Deque<Batch> free;
+	/**
+	 * The batches that are about to be drawn, reused between calls.
+	 */
+	private List<Batch> victims;
+	/**
+	 * The color the graphics object had before the renderer changed it, or
+	 * null if it has not been changed.
+	 */
+	private Color callerColor;
+	/**
+	 * The corners of the last mapped rectangle, reused between calls.
+	 */
+	private double[] corners;
+	/**
+	 * The cell range of the last mapped rectangle: the first and the last
+	 * column and the first and the last row.
+	 */
+	private int[] cells;
+
+	/**
+	 * Creates a new {@link BatchRenderer} that draws with the given graphics
+	 * object.
+	 *
+	 * @param g
+	 *            The graphics object the batches are drawn with.
+	 */
+	public BatchRenderer(Graphics2D g) {
+		this.g = g;
+		transform = g.getTransform();
+		batches = new LinkedHashMap<>();
+		free = new ArrayDeque<>();
+		victims = new ArrayList<>();
+		corners = new double[8];
+		cells = new int[4];
+	}
+
+	/**
+	 * Method adds the primitives of the given object to the batches. The
+	 * object may not be drawn before {@link #flush()} is called.
+	 *
+	 * @param object
+	 *            The object to paint.
+	 */
+	public void paint(GeometricalObject object) {
+		if (object instanceof Line) {
+			Line line = (Line) object;
+			mapCells(line.getBoundingRect());
+			open(line.getForegroundColor(), STROKE, null).addSegment(line.getStartX(), line.getStartY(), line.getEndX(),
+					line.getEndY());
+		} else if (object instanceof Circle) {
+			Circle circle = (Circle) object;
+			int centerX = circle.getCenterX();
+			int centerY = circle.getCenterY();
+			int r = circle.getRadius();
+			Ellipse2D.Double ellipse = new Ellipse2D.Double(centerX - r, centerY - r, 2 * r, 2 * r);
+			mapCells(circle.getBoundingRect());
+			Batch fill = null;
+			if (circle.isFilled()) {
+				fill = open(circle.getBackgroundColor(), FILL, null);
+				fill.path.append(ellipse, false);
+			}
+			open(circle.getForegroundColor(), STROKE, fill).path.append(ellipse, false);
+		} else {
+			flush();
+			object.paint(g);
+		}
+	}
+
+	/**
+	 * Method draws the open batches that overlap the given area, so that
+	 * something else can be drawn there directly. Any color change made by
+	 * the renderer is undone before this method returns.
+	 *
+	 * @param area
+	 *            The area, in the coordinates of the objects.
+	 */
+	public void flush(Rectangle area) {
+		mapCells(area);
+		victims.clear();
+		for (Batch batch : batches.values()) {
+			if (batch.overlaps(cells)) {
+				victims.add(batch);
+			}
+		}
+		for (Batch batch : victims) {
+			release(batch);
+		}
+		restoreColor();
+	}
+
+	/**
+	 * Method draws all the open batches. It must be called once all the
+	 * objects have been passed to the renderer.
+	 */
+	public void flush() {
+		for (Batch batch : batches.values()) {
+			if (batch.kind == FILL) {
+				draw(batch);
+			}
+		}
+		for (Batch batch : batches.values()) {
+			if (batch.kind == STROKE) {
+				draw(batch);
+			}
+		}
+		batches.clear();
+		restoreColor();
+	}
+
+	/**
+	 * Method obtains the batch a primitive of the given color and kind is
+	 * added to, and marks the cells of the primitive, mapped by the last call
+	 * of {@link #mapCells(Rectangle)}, as covered by the batch. Every open
+	 * batch of a different color or kind that the primitive overlaps is drawn
+	 * first, except for the given one.
+	 *
+	 * @param color
+	 *            The color of the primitive.
+	 * @param kind
+	 *            The kind of the primitive, {@link #STROKE} or {@link #FILL}.
+	 * @param exempt
+	 *            The batch that is left open even if the primitive overlaps
+	 *            it, or null. It is the fill batch of the circle whose outline
+	 *            is being added.
+	 * @return The batch to add the primitive to.
+	 */
+	private Batch open(Color color, int kind, Batch exempt) {
+		long key = ((color.getRGB() & 0xFFFFFFFFL) << 1) | kind;
+
+		victims.clear();
+		for (Batch batch : batches.values()) {
+			if (batch.key != key && batch != exempt && batch.overlaps(cells)) {
+				victims.add(batch);
+			}
+		}
+		for (Batch batch : victims) {
+			release(batch);
+		}
+
+		Batch own = batches.get(key);
+		if (own == null) {
+			if (batches.size() >= MAX_OPEN_BATCHES) {
+				release(batches.values().iterator().next());
+			}
+			own = free.isEmpty() ? new Batch() : free.pop();
+			own.key = key;
+			own.color = color;
+			own.kind = kind;
+			batches.put(key, own);
+		}
+		own.cover(cells);
+		restoreColor();
+		return own;
+	}
+
+	/**
+	 * Method draws the given open batch and closes it. Before a stroke batch
+	 * is drawn, every open fill batch it overlaps is drawn, since those fills
+	 * are older than the strokes they overlap. A batch that has already been
+	 * drawn is ignored.
+	 *
+	 * @param batch
+	 *            The batch to draw.
+	 */
+	private void release(Batch batch) {
+		if (batches.get(batch.key) != batch) {
+			return;
+		}
+
+		if (batch.kind == STROKE) {
+			Iterator<Batch> it = batches.values().iterator();
+			while (it.hasNext()) {
+				Batch fill = it.next();
+				if (fill.kind == FILL && fill.covered.intersects(batch.covered)) {
+					draw(fill);
+					it.remove();
+				}
+			}
+		}
+		batches.remove(batch.key);
+		draw(batch);
+	}
+
+	/**
+	 * Method draws the given batch and makes it available for reuse. The color
+	 * of the graphics object stays changed until {@link #restoreColor()} is
+	 * called.
+	 *
+	 * @param batch
+	 *            The batch to draw.
+	 */
+	private void draw(Batch batch) {
+		if (callerColor == null) {
+			callerColor = g.getColor();
+		}
+		g.setColor(batch.color);
+		if (batch.kind == FILL) {
+			g.fill(batch.path);
+		} else {
+			if (batch.path.getCurrentPoint() != null) {
+				g.draw(batch.path);
+			}
+			int[] s = batch.segments;
+			for (int i = 0; i < batch.segmentLength; i += 4) {
+				g.drawLine(s[i], s[i + 1], s[i + 2], s[i + 3]);
+			}
+		}
+		batch.path.reset();
+		batch.segmentLength = 0;
+		batch.color = null;
+		batch.covered.clear();
+		free.push(batch);
+	}
+
+	/**
+	 * Method restores the color the graphics object had before any batch was
+	 * drawn.
+	 */
+	private void restoreColor() {
+		if (callerColor != null) {
+			g.setColor(callerColor);
+			callerColor = null;
+		}
+	}
+
+	/**
+	 * Method maps the given rectangle to the range of grid cells it covers on
+	 * the device, including the padding of the strokes, and stores the range
+	 * in {@link #cells}.
+	 *
+	 * @param bounds
+	 *            The rectangle, in the coordinates of the objects.
+	 */
+	private void mapCells(Rectangle bounds) {
+		double x0 = bounds.x;
+		double y0 = bounds.y;
+		double x1 = (double) bounds.x + bounds.width;
+		double y1 = (double) bounds.y + bounds.height;
+		corners[0] = x0;
+		corners[1] = y0;
+		corners[2] = x1;
+		corners[3] = y0;
+		corners[4] = x0;
+		corners[5] = y1;
+		corners[6] = x1;
+		corners[7] = y1;
+		transform.transform(corners, 0, corners, 0, 4);
+
+		double minX = Math.min(Math.min(corners[0], corners[2]), Math.min(corners[4], corners[6]));
+		double maxX = Math.max(Math.max(corners[0], corners[2]), Math.max(corners[4], corners[6]));
+		double minY = Math.min(Math.min(corners[1], corners[3]), Math.min(corners[5], corners[7]));
+		double maxY = Math.max(Math.max(corners[1], corners[3]), Math.max(corners[5], corners[7]));
+		cells[0] = cell(minX - PADDING);
+		cells[1] = cell(maxX + PADDING);
+		cells[2] = cell(minY - PADDING);
+		cells[3] = cell(maxY + PADDING);
+	}
+
+	/**
+	 * Method computes the grid column or row of the given device coordinate.
+	 * Coordinates outside of the grid are mapped to its border.
+	 *
+	 * @param coordinate
+	 *            The device coordinate.
+	 * @return The column or row, from 0 to {@link #GRID_SIZE} - 1.
+	 */
+	private static int cell(double coordinate) {
+		double cell = Math.floor(coordinate / CELL_SIZE);
+		return (int) Math.max(0, Math.min(GRID_SIZE - 1, cell));
+	}
+
+	/**
+	 * An open batch of primitives of the same color and kind.
+	 *
+	 * @author Marin
+	 *
+	 */
+	private static class Batch {
+		/**
+		 * The outlines of the circles.
+		 */
+		private final Path2D.Double path = new Path2D.Double();
+		/**
+		 * The grid cells covered by the primitives, row by row.
+		 */
+		private final BitSet covered = new BitSet(GRID_SIZE * GRID_SIZE);
+		/**
+		 * The end points of the line segments, four coordinates per segment.
+		 */
+		private int[] segments = new int[INITIAL_SEGMENTS];
+		/**
+		 * The number of used coordinates in {@link #segments}.
+		 */
+		private int segmentLength;
+		/**
+		 * The key of the batch, made of its color and kind.
+		 */
+		private long key;
+		/**
+		 * The color of the primitives.
+		 */
+		private Color color;
+		/**
+		 * The kind of the primitives, {@link BatchRenderer#STROKE} or
+		 * {@link BatchRenderer#FILL}.
+		 */
+		private int kind;
+
+		/**
+		 * Method adds a line segment to the batch.
+		 *
+		 * @param x1
+		 *            The x coordinate of the first end point.
+		 * @param y1
+		 *            The y coordinate of the first end point.
+		 * @param x2
+		 *            The x coordinate of the second end point.
+		 * @param y2
+		 *            The y coordinate of the second end point.
+		 */
+		void addSegment(int x1, int y1, int x2, int y2) {
+			if (segmentLength == segments.length) {
+				segments = Arrays.copyOf(segments, segments.length * 2);
+			}
+			segments[segmentLength++] = x1;
+			segments[segmentLength++] = y1;
+			segments[segmentLength++] = x2;
+			segments[segmentLength++] = y2;
+		}
+
+		/**
+		 * Method marks the given range of cells as covered by the batch.
+		 *
+		 * @param cells
+		 *            The first and the last column and the first and the last
+		 *            row of the range.
+		 */
+		void cover(int[] cells) {
+			for (int row = cells[2]; row <= cells[3]; row++) {
+				covered.set(row * GRID_SIZE + cells[0], row * GRID_SIZE + cells[1] + 1);
+			}
+		}
+
+		/**
+		 * Method checks whether the batch covers any cell of the given range.
+		 *
+		 * @param cells
+		 *            The first and the last column and the first and the last
+		 *            row of the range.
+		 * @return True if the batch covers a cell of the range, false
+		 *         otherwise.
+		 */
+		boolean overlaps(int[] cells) {
+			for (int row = cells[2]; row <= cells[3]; row++) {
+				int first = covered.nextSetBit(row * GRID_SIZE + cells[0]);
+				if (first == -1) {
+					return false;
+				}
+				if (first <= row * GRID_SIZE + cells[1]) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+}
@@ -0,0 +1,121 @@
+package hr.marin.jvdraw.render;
+
+/**
+ * An accumulator of the colors of the small objects falling on every pixel of
+ * a raster, used in the {@link LevelOfDetail#DENSITY} mode.
+ *
+ * @author Marin
+ *
+ */
+class DensityAccumulator {
+	/**
+	 * The number of small objects that fully cover a pixel.
+	 */
+	private static final int SATURATION = 4;
+
+	/**
+	 * The sums of the red components per pixel.
+	 */
+	private final int[] red;
+	/**
+	 * The sums of the green components per pixel.
+	 */
+	private final int[] green;
+	/**
+	 * The sums of the blue components per pixel.
+	 */
+	private final int[] blue;
+	/**
+	 * The number of objects per pixel.
+	 */
+	private final int[] count;
+	/**
+	 * The offsets of the pixels with at least one object.
+	 */
+	private final int[] touched;
+	/**
+	 * The number of used entries in {@link #touched}.
+	 */
+	private int touchedCount;
+
+	/**
+	 * Creates a new empty accumulator for the given number of pixels.
+	 *
+	 * @param length
+	 *            The number of pixels.
+	 */
+	DensityAccumulator(int length) {
+		red = new int[length];
+		green = new int[length];
+		blue = new int[length];
+		count = new int[length];
+		touched = new int[length];
+	}
+
+	/**
+	 * Method obtains the number of pixels of this accumulator.
+	 *
+	 * @return The number of pixels.
+	 */
+	int length() {
+		return count.length;
+	}
+
+	/**
+	 * Method adds an object of the given color to the given pixel.
+	 *
+	 * @param offset
+	 *            The offset of the pixel.
+	 * @param rgb
+	 *            The color of the object.
+	 */
+	void add(int offset, int rgb) {
+		if (count[offset]++ == 0) {
+			touched[touchedCount++] = offset;
+		}
+		red[offset] += (rgb >> 16) & 0xFF;
+		green[offset] += (rgb >> 8) & 0xFF;
+		blue[offset] += rgb & 0xFF;
+	}
+
+	/**
+	 * Method blends the accumulated colors over the given raster and empties
+	 * the accumulator.
+	 *
+	 * @param raster
+	 *            The pixels to blend over, one RGB value per pixel.
+	 */
+	void blendInto(int[] raster) {
+		for (int i = 0; i < touchedCount; i++) {
+			int offset = touched[i];
+			int n = count[offset];
+			int weight = Math.min(n, SATURATION);
+			int dst = raster[offset];
+			int r = blend((dst >> 16) & 0xFF, red[offset] / n, weight);
+			int g = blend((dst >> 8) & 0xFF, green[offset] / n, weight);
+			int b = blend(dst & 0xFF, blue[offset] / n, weight);
+			raster[offset] = 0xFF000000 | (r << 16) | (g << 8) | b;
+
+			red[offset] = 0;
+			green[offset] = 0;
+			blue[offset] = 0;
+			count[offset] = 0;
+		}
+		touchedCount = 0;
+	}
+
+	/**
+	 * Method blends a single color component.
+	 *
+	 * @param dst
+	 *            The component of the pixel.
+	 * @param src
+	 *            The average component of the objects.
+	 * @param weight
+	 *            The weight of the objects, out of {@link #SATURATION}.
+	 * @return The blended component.
+	 */
+	private static int blend(int dst, int src, int weight) {
+		return (dst * (SATURATION - weight) + src * weight) / SATURATION;
+	}
+}
@@ -0,0 +1,24 @@
+package hr.marin.jvdraw.render;
+
+/**
+ * The ways a {@link Renderer} renders the objects that are too small to be
+ * painted as shapes.
+ *
+ * @author Marin
+ *
+ */
+public enum LevelOfDetail {
+	/**
+	 * Every object is painted as a shape, regardless of its size.
+	 */
+	NONE,
+	/**
+	 * A small object is written as a single pixel of its color.
+	 */
+	PIXEL,
+	/**
+	 * The small objects falling on a pixel are averaged, and their average
+	 * color is blended over the pixel in proportion to their number.
+	 */
+	DENSITY
+}
@@ -0,0 +1,273 @@
+package hr.marin.jvdraw.render;
+
+import hr.marin.jvdraw.geometric.GeometricalObject;
+import hr.marin.jvdraw.model.DrawingModel;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+
+/**
+ * <p>
+ * A renderer that draws the objects of a {@link DrawingModel} into an image,
+ * independently of any Swing component, so it also works with
+ * <code>java.awt.headless=true</code>.
+ * </p>
+ * <p>
+ * The part of the drawing that is rendered is described by a viewport: the
+ * world coordinates of the drawing are multiplied by the scale of the viewport
+ * into view coordinates, and the view coordinates of the top left corner of
+ * the target are given. Only the objects that the spatial index of the model
+ * finds inside the target are painted, through a {@link BatchRenderer}, in
+ * their z-order.
+ * </p>
+ * <p>
+ * Objects smaller than a configurable number of target pixels are rendered
+ * according to the {@link LevelOfDetail} of the renderer, which by default
+ * paints every object as a shape. The level of detail only applies to
+ * targets that store their pixels as <code>int</code>s; all other targets
+ * are painted at full detail.
+ * </p>
+ * <p>
+ * A renderer keeps scratch buffers between calls, so it must not be used by
+ * more than one thread at a time.
+ * </p>
+ *
+ * @author Marin
+ *
+ */
+public class Renderer {
+	/**
+	 * The color of the parts of the drawing that no object covers.
+	 */
+	public static final Color BACKGROUND = Color.WHITE;
+
+	/**
+	 * The model whose objects are rendered.
+	 */
+	private DrawingModel model;
+	/**
+	 * The way small objects are rendered.
+	 */
+	private LevelOfDetail levelOfDetail;
+	/**
+	 * The size in target pixels below which objects are rendered according to
+	 * {@link #levelOfDetail}.
+	 */
+	private double detailThreshold;
+	/**
+	 * The object that is left out of the rendering, or null.
+	 */
+	private GeometricalObject excluded;
+	/**
+	 * The accumulator used in the {@link LevelOfDetail#DENSITY} mode, or null
+	 * if it has not been needed yet.
+	 */
+	private DensityAccumulator density;
+
+	/**
+	 * Creates a new {@link Renderer} for the given model, which paints every
+	 * object as a shape.
+	 *
+	 * @param model
+	 *            The model whose objects are rendered.
+	 */
+	public Renderer(DrawingModel model) {
+		this.model = model;
+		levelOfDetail = LevelOfDetail.NONE;
+		detailThreshold = 1;
+	}
+
+	/**
+	 * Sets the model whose objects are rendered.
+	 *
+	 * @param model
+	 *            The model whose objects are rendered.
+	 */
+	public void setModel(DrawingModel model) {
+		this.model = model;
+	}
+
+	/**
+	 * Sets the way objects smaller than the given number of target pixels are
+	 * rendered.
+	 *
+	 * @param levelOfDetail
+	 *            The way small objects are rendered.
+	 * @param threshold
+	 *            The width and height in target pixels below which an object
+	 *            counts as small.
+	 */
+	public void setLevelOfDetail(LevelOfDetail levelOfDetail, double threshold) {
+		if (levelOfDetail == null) {
+			throw new IllegalArgumentException("The level of detail must not be null.");
+		}
+		this.levelOfDetail = levelOfDetail;
+		detailThreshold = threshold;
+	}
+
+	/**
+	 * Sets the object that is left out of the rendering, such as an object
+	 * that is drawn separately while it is being created. Every object of the
+	 * model that is equal to it is left out.
+	 *
+	 * @param excluded
+	 *            The object to leave out, or null to render all the objects.
+	 */
+	public void setExcluded(GeometricalObject excluded) {
+		this.excluded = excluded;
+	}
+
+	/**
+	 * Method renders the given world rectangle into the given image, scaled
+	 * uniformly so that it fits the image.
+	 *
+	 * @param target
+	 *            The image to render into.
+	 * @param world
+	 *            The part of the drawing to render, in world coordinates.
+	 */
+	public void render(BufferedImage target, Rectangle world) {
+		double scale = Math.min((double) target.getWidth() / Math.max(world.width, 1), (double) target.getHeight()
+				/ Math.max(world.height, 1));
+		render(target, (int) Math.floor(world.x * scale), (int) Math.floor(world.y * scale), scale);
+	}
+
+	/**
+	 * Method renders the part of the drawing seen through the given viewport
+	 * into the given raster of RGB values.
+	 *
+	 * @param raster
+	 *            The raster to render into, one RGB value per pixel, row by
+	 *            row.
+	 * @param width
+	 *            The width of the raster.
+	 * @param height
+	 *            The height of the raster.
+	 * @param viewX
+	 *            The view x coordinate of the left edge of the raster.
+	 * @param viewY
+	 *            The view y coordinate of the top edge of the raster.
+	 * @param scale
+	 *            The number of view pixels per world pixel.
+	 */
+	public void render(int[] raster, int width, int height, int viewX, int viewY, double scale) {
+		if (raster.length < width * height) {
+			throw new IllegalArgumentException("The raster is smaller than " + width + "x" + height + ".");
+		}
+		DataBufferInt buffer = new DataBufferInt(raster, raster.length);
+		int[] masks = { 0xFF0000, 0xFF00, 0xFF };
+		WritableRaster wrapped = Raster.createPackedRaster(buffer, width, height, width, masks, null);
+		BufferedImage image = new BufferedImage(new DirectColorModel(24, masks[0], masks[1], masks[2]), wrapped,
+				false, null);
+		render(image, viewX, viewY, scale);
+	}
+
+	/**
+	 * Method renders the part of the drawing seen through the given viewport
+	 * into the given image.
+	 *
+	 * @param target
+	 *            The image to render into.
+	 * @param viewX
+	 *            The view x coordinate of the left edge of the image.
+	 * @param viewY
+	 *            The view y coordinate of the top edge of the image.
+	 * @param scale
+	 *            The number of view pixels per world pixel.
+	 */
+	public void render(BufferedImage target, int viewX, int viewY, double scale) {
+		int width = target.getWidth();
+		int height = target.getHeight();
+		Graphics2D g2d = target.createGraphics();
+		g2d.setColor(BACKGROUND);
+		g2d.fillRect(0, 0, width, height);
+		g2d.translate(-viewX, -viewY);
+		g2d.scale(scale, scale);
+
+		int worldX0 = clamp((long) Math.floor(viewX / scale) - 1);
+		int worldY0 = clamp((long) Math.floor(viewY / scale) - 1);
+		int worldX1 = clamp((long) Math.ceil(((long) viewX + width) / scale) + 1);
+		int worldY1 = clamp((long) Math.ceil(((long) viewY + height) / scale) + 1);
+		Rectangle world = new Rectangle(worldX0, worldY0, worldX1 - worldX0, worldY1 - worldY0);
+
+		int[] pixels = intPixels(target);
+		LevelOfDetail mode = (pixels == null) ? LevelOfDetail.NONE : levelOfDetail;
+		double smallSize = (mode == LevelOfDetail.NONE) ? 0 : detailThreshold / scale;
+		if (mode == LevelOfDetail.DENSITY && (density == null || density.length() != width * height)) {
+			density = new DensityAccumulator(width * height);
+		}
+
+		BatchRenderer renderer = new BatchRenderer(g2d);
+		for (int index : model.getIndicesIn(world)) {
+			GeometricalObject object = model.getObject(index);
+			if (object.equals(excluded)) {
+				continue;
+			}
+
+			Rectangle r = object.getBoundingRect();
+			if (r.width >= smallSize || r.height >= smallSize) {
+				renderer.paint(object);
+				continue;
+			}
+
+			int px = (int) Math.floor((r.x + r.width / 2.0) * scale) - viewX;
+			int py = (int) Math.floor((r.y + r.height / 2.0) * scale) - viewY;
+			if (px < 0 || px >= width || py < 0 || py >= height) {
+				continue;
+			}
+			int rgb = object.getForegroundColor().getRGB();
+			if (mode == LevelOfDetail.PIXEL) {
+				renderer.flush(r);
+				pixels[py * width + px] = rgb;
+			} else {
+				density.add(py * width + px, rgb);
+			}
+		}
+		renderer.flush();
+		g2d.dispose();
+
+		if (mode == LevelOfDetail.DENSITY) {
+			density.blendInto(pixels);
+		}
+	}
+
+	/**
+	 * Method obtains the raster of the given image if it stores every pixel
+	 * as a single RGB or ARGB <code>int</code>, without any offset or padding.
+	 *
+	 * @param image
+	 *            The image.
+	 * @return The raster of the image, or null if it is stored differently.
+	 */
+	private static int[] intPixels(BufferedImage image) {
+		int type = image.getType();
+		if (type != BufferedImage.TYPE_INT_RGB && type != BufferedImage.TYPE_INT_ARGB) {
+			return null;
+		}
+		WritableRaster raster = image.getRaster();
+		if (raster.getParent() != null || raster.getDataBuffer().getNumBanks() != 1
+				|| raster.getDataBuffer().getOffset() != 0
+				|| raster.getSampleModel().getWidth() != image.getWidth()) {
+			return null;
+		}
+		return ((DataBufferInt) raster.getDataBuffer()).getData();
+	}
+
+	/**
+	 * Method clamps the given value into the range of an integer, with room
+	 * to spare for adding sizes to it.
+	 *
+	 * @param value
+	 *            The value to clamp.
+	 * @return The clamped value.
+	 */
+	private static int clamp(long value) {
+		return (int) Math.max(Integer.MIN_VALUE / 2, Math.min(Integer.MAX_VALUE / 2, value));
+	}
+}
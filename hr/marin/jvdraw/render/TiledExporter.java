@@ -0,0 +1,277 @@
+package hr.marin.jvdraw.render;
+
+import hr.marin.jvdraw.io.PngWriter;
+import hr.marin.jvdraw.model.DrawingModel;
+
+import java.awt.Rectangle;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * <p>
+ * An exporter that renders a drawing into a PNG image of any size without
+ * keeping the whole image in memory.
+ * </p>
+ * <p>
+ * The image is rendered in horizontal bands of tiles. The tiles of a band are
+ * rendered in parallel on a {@link ForkJoinPool}, each by its own
+ * {@link Renderer} that only paints the objects inside the tile, and the rows
+ * of the finished band are streamed into a {@link PngWriter}. While a band is
+ * being encoded, the next one is already being rendered, so at most two bands
+ * are held in memory at a time. A band holds at most {@link #MAX_BAND_PIXELS}
+ * pixels, so the memory used does not depend on the size of the image.
+ * </p>
+ * <p>
+ * The model must not be modified while it is being exported, so a snapshot of
+ * the model should be exported when the original can change.
+ * </p>
+ *
+ * @author Marin
+ *
+ */
+public class TiledExporter {
+	/**
+	 * The width of a tile, and the largest height of a band.
+	 */
+	private static final int TILE_SIZE = 256;
+	/**
+	 * The number of pixels every tile is rendered beyond its edges, so that
+	 * shapes crossing the edge of a tile are rasterized the same way as in a
+	 * single image.
+	 */
+	private static final int TILE_MARGIN = 8;
+	/**
+	 * The largest number of pixels in a band.
+	 */
+	private static final int MAX_BAND_PIXELS = 1 << 22;
+
+	/**
+	 * The pool that renders the tiles.
+	 */
+	private ForkJoinPool pool;
+
+	/**
+	 * Creates a new {@link TiledExporter} that uses the common
+	 * {@link ForkJoinPool}.
+	 */
+	public TiledExporter() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Creates a new {@link TiledExporter} that uses the given pool.
+	 *
+	 * @param pool
+	 *            The pool that renders the tiles.
+	 */
+	public TiledExporter(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Method renders the given area of the drawing at its natural size and
+	 * writes it to the given stream as a PNG image. The stream is closed once
+	 * the image has been written, or once writing it has failed.
+	 *
+	 * @param model
+	 *            The model whose objects are rendered.
+	 * @param area
+	 *            The pixels of the drawing that make up the image.
+	 * @param out
+	 *            The stream the image is written to.
+	 * @param progress
+	 *            The consumer that is told the number of rows written so far
+	 *            after every band, or null. If it throws an exception, the
+	 *            export is abandoned.
+	 * @throws IOException
+	 *             If the image could not be written.
+	 */
+	public void writePng(DrawingModel model, Rectangle area, OutputStream out, IntConsumer progress)
+			throws IOException {
+		int width = area.width;
+		int height = area.height;
+		Band next = null;
+		try (PngWriter png = new PngWriter(out, width, height)) {
+			int bandHeight = Math.max(1, Math.min(TILE_SIZE, MAX_BAND_PIXELS / width));
+			next = submit(model, area, 0, Math.min(bandHeight, height));
+			for (int y = 0; y < height; y += bandHeight) {
+				Band band = next;
+				int nextY = y + bandHeight;
+				next = (nextY < height) ? submit(model, area, nextY, Math.min(bandHeight, height - nextY)) : null;
+
+				band.join();
+				for (int row = 0; row < band.height; row++) {
+					png.writeRow(band.pixels, row * width);
+				}
+				if (progress != null) {
+					progress.accept(y + band.height);
+				}
+			}
+		} finally {
+			if (next != null) {
+				next.cancel();
+			}
+		}
+	}
+
+	/**
+	 * Method starts rendering the given band of the image.
+	 *
+	 * @param model
+	 *            The model whose objects are rendered.
+	 * @param area
+	 *            The pixels of the drawing that make up the image.
+	 * @param y
+	 *            The first row of the band.
+	 * @param height
+	 *            The number of rows of the band.
+	 * @return The band that is being rendered.
+	 */
+	private Band submit(DrawingModel model, Rectangle area, int y, int height) {
+		Band band = new Band(area.width, height);
+		for (int x = 0; x < area.width; x += TILE_SIZE) {
+			TileTask task = new TileTask(model, band, x, Math.min(TILE_SIZE, area.width - x), area.x + x, area.y + y);
+			band.tasks.add(task);
+			pool.execute(task);
+		}
+		return band;
+	}
+
+	/**
+	 * A band of the image, made up of a row of tiles.
+	 *
+	 * @author Marin
+	 *
+	 */
+	private static class Band {
+		/**
+		 * The pixels of the band, row by row.
+		 */
+		private final int[] pixels;
+		/**
+		 * The width of the band.
+		 */
+		private final int width;
+		/**
+		 * The number of rows of the band.
+		 */
+		private final int height;
+		/**
+		 * The tasks rendering the tiles of the band.
+		 */
+		private final List<TileTask> tasks;
+
+		/**
+		 * Creates a new band of the given size.
+		 *
+		 * @param width
+		 *            The width of the band.
+		 * @param height
+		 *            The number of rows of the band.
+		 */
+		Band(int width, int height) {
+			this.width = width;
+			this.height = height;
+			pixels = new int[width * height];
+			tasks = new ArrayList<>();
+		}
+
+		/**
+		 * Method waits until all the tiles of the band have been rendered.
+		 */
+		void join() {
+			for (TileTask task : tasks) {
+				task.join();
+			}
+		}
+
+		/**
+		 * Method cancels the rendering of the tiles that have not started
+		 * yet.
+		 */
+		void cancel() {
+			for (TileTask task : tasks) {
+				task.cancel(false);
+			}
+		}
+	}
+
+	/**
+	 * A task that renders a single tile of a band.
+	 *
+	 * @author Marin
+	 *
+	 */
+	private static class TileTask extends RecursiveAction {
+		/**
+		 * The default serial version UID.
+		 */
+		private static final long serialVersionUID = 1L;
+		/**
+		 * The model whose objects are rendered.
+		 */
+		private final transient DrawingModel model;
+		/**
+		 * The band the tile belongs to.
+		 */
+		private final transient Band band;
+		/**
+		 * The first column of the tile within the band.
+		 */
+		private final int x;
+		/**
+		 * The width of the tile.
+		 */
+		private final int width;
+		/**
+		 * The world x coordinate of the left edge of the tile.
+		 */
+		private final int worldX;
+		/**
+		 * The world y coordinate of the top edge of the tile.
+		 */
+		private final int worldY;
+
+		/**
+		 * Creates a new task for the given tile.
+		 *
+		 * @param model
+		 *            The model whose objects are rendered.
+		 * @param band
+		 *            The band the tile belongs to.
+		 * @param x
+		 *            The first column of the tile within the band.
+		 * @param width
+		 *            The width of the tile.
+		 * @param worldX
+		 *            The world x coordinate of the left edge of the tile.
+		 * @param worldY
+		 *            The world y coordinate of the top edge of the tile.
+		 */
+		TileTask(DrawingModel model, Band band, int x, int width, int worldX, int worldY) {
+			this.model = model;
+			this.band = band;
+			this.x = x;
+			this.width = width;
+			this.worldX = worldX;
+			this.worldY = worldY;
+		}
+
+		@Override
+		protected void compute() {
+			int tileWidth = width + 2 * TILE_MARGIN;
+			int tileHeight = band.height + 2 * TILE_MARGIN;
+			int[] tile = new int[tileWidth * tileHeight];
+			new Renderer(model).render(tile, tileWidth, tileHeight, worldX - TILE_MARGIN, worldY - TILE_MARGIN, 1);
+			for (int row = 0; row < band.height; row++) {
+				System.arraycopy(tile, (row + TILE_MARGIN) * tileWidth + TILE_MARGIN, band.pixels, row * band.width
+						+ x, width);
+			}
+		}
+	}
+}